@@ -2,21 +2,32 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.messages.LogMessages;
+import ru.practicum.shareit.messages.ValidationMessages;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.util.List;
 
 @Slf4j
 @Validated
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
@@ -26,11 +37,12 @@ public class BookingController {
 	public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
 											  @RequestParam(name = "state", defaultValue = "all") String stateParam,
 											  @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
-											  @RequestParam(name = "size", defaultValue = "10") @Min(1) Integer size) {
+											  @RequestParam(name = "size", defaultValue = "10") @Min(1) Integer size,
+											  @RequestParam(name = "cursor", required = false) String cursor) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
 		log.info(LogMessages.GET_BOOKINGS.toString(), stateParam, userId, from, size);
-		return bookingClient.getBookings(userId, state, from, size);
+		return bookingClient.getBookings(userId, state, from, size, cursor);
 	}
 
 	@PostMapping
@@ -51,11 +63,29 @@ public class BookingController {
 	public ResponseEntity<Object> getAllByOwner(@RequestHeader(name = "X-Sharer-User-Id") long userId,
 												@RequestParam(name = "state", defaultValue = "all") String stateParam,
 												@RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
-												@RequestParam(name = "size", defaultValue = "10") @Min(1) Integer size) {
+												@RequestParam(name = "size", defaultValue = "10") @Min(1) Integer size,
+												@RequestParam(name = "cursor", required = false) String cursor) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
 		log.info(LogMessages.GET_ALL_BY_OWNER.toString(), stateParam, userId, from, size);
-		return bookingClient.getAllByOwner(userId, state, from, size);
+		return bookingClient.getAllByOwner(userId, state, from, size, cursor);
+	}
+
+	@GetMapping("/owner/export")
+	public void exportOwnerBookings(@RequestHeader(name = "X-Sharer-User-Id") long userId,
+									HttpServletRequest request,
+									HttpServletResponse response) throws IOException {
+		log.info(LogMessages.EXPORT_OWNER_BOOKINGS.toString(), userId);
+		ShallowEtagHeaderFilter.disableContentCaching(request);
+		bookingClient.exportOwnerBookings(userId, response);
+	}
+
+	@PatchMapping("/batch")
+	public ResponseEntity<Object> renewalBookings(@RequestHeader(value = "X-Sharer-User-Id") long userId,
+												  @RequestBody @Size(min = 1, max = 1000, message = ValidationMessages.BOOKING_BATCH_SIZE)
+												  List<@NotNull(message = ValidationMessages.BOOKING_DECISION_EMPTY) BookingDecisionDto> decisions) {
+		log.info(LogMessages.RENEWAL_BOOKINGS.toString(), decisions.size(), userId);
+		return bookingClient.renewalBookings(userId, decisions);
 	}
 
 	@PatchMapping("/{bookingId}")
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.config.ReactiveEtagFilter;
+import ru.practicum.shareit.messages.LogMessages;
+import ru.practicum.shareit.messages.ValidationMessages;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Slf4j
+@Validated
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/bookings")
+@RequiredArgsConstructor
+public class BookingReactiveController {
+	private final BookingReactiveClient bookingReactiveClient;
+
+	@GetMapping
+	public Mono<ResponseEntity<Object>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+											        @RequestParam(name = "state", defaultValue = "all") String stateParam,
+											        @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+											        @RequestParam(name = "size", defaultValue = "10") @Min(1) Integer size,
+											        @RequestParam(name = "cursor", required = false) String cursor) {
+		BookingState state = BookingState.from(stateParam)
+				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+		log.info(LogMessages.GET_BOOKINGS.toString(), stateParam, userId, from, size);
+		return bookingReactiveClient.getBookings(userId, state, from, size, cursor);
+	}
+
+	@PostMapping
+	public Mono<ResponseEntity<Object>> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
+										         @Valid @RequestBody BookItemRequestDto requestDto) {
+		log.info(LogMessages.BOOK_ITEM.toString(), requestDto, userId);
+		return bookingReactiveClient.bookItem(userId, requestDto);
+	}
+
+	@GetMapping("/{bookingId}")
+	public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+											       @PathVariable Long bookingId) {
+		log.info(LogMessages.GET_BOOKING.toString(), bookingId, userId);
+		return bookingReactiveClient.getBooking(userId, bookingId);
+	}
+
+	@GetMapping("/owner")
+	public Mono<ResponseEntity<Object>> getAllByOwner(@RequestHeader(name = "X-Sharer-User-Id") long userId,
+												      @RequestParam(name = "state", defaultValue = "all") String stateParam,
+												      @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+												      @RequestParam(name = "size", defaultValue = "10") @Min(1) Integer size,
+												      @RequestParam(name = "cursor", required = false) String cursor) {
+		BookingState state = BookingState.from(stateParam)
+				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+		log.info(LogMessages.GET_ALL_BY_OWNER.toString(), stateParam, userId, from, size);
+		return bookingReactiveClient.getAllByOwner(userId, state, from, size, cursor);
+	}
+
+	@GetMapping("/owner/export")
+	public Mono<ResponseEntity<Flux<DataBuffer>>> exportOwnerBookings(@RequestHeader(name = "X-Sharer-User-Id") long userId,
+																	  ServerWebExchange exchange) {
+		log.info(LogMessages.EXPORT_OWNER_BOOKINGS.toString(), userId);
+		ReactiveEtagFilter.disableContentCaching(exchange);
+		return bookingReactiveClient.exportOwnerBookings(userId);
+	}
+
+	@PatchMapping("/batch")
+	public Mono<ResponseEntity<Object>> renewalBookings(@RequestHeader(value = "X-Sharer-User-Id") long userId,
+												        @RequestBody @Size(min = 1, max = 1000, message = ValidationMessages.BOOKING_BATCH_SIZE)
+												        List<@NotNull(message = ValidationMessages.BOOKING_DECISION_EMPTY) BookingDecisionDto> decisions) {
+		log.info(LogMessages.RENEWAL_BOOKINGS.toString(), decisions.size(), userId);
+		return bookingReactiveClient.renewalBookings(userId, decisions);
+	}
+
+	@PatchMapping("/{bookingId}")
+	public Mono<ResponseEntity<Object>> renewalBooking(@RequestHeader(value = "X-Sharer-User-Id") long userId,
+												       @PathVariable long bookingId,
+												       @RequestParam Boolean approved) {
+		log.info(LogMessages.RENEWAL_BOOKING.toString(), bookingId, userId);
+		return bookingReactiveClient.renewalBooking(userId, bookingId, approved);
+	}
+}
\ No newline at end of file
@@ -1,22 +1,50 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestTemplate;
 
+import javax.servlet.http.HttpServletResponse;
+
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "te", "trailer", "upgrade", "proxy-authenticate", "proxy-authorization");
+
     protected final RestTemplate rest;
+    @Nullable
+    private final ResponseCache cache;
+    private final boolean passthrough;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable ResponseCache cache) {
+        this(rest, cache, false);
+    }
+
+    /**
+     * @param passthrough тело ответа сервера отдаётся клиенту шлюза байтами, без разбора Jackson
+     *                    и повторной сериализации; статус и сквозные заголовки сохраняются
+     */
+    public BaseClient(RestTemplate rest, @Nullable ResponseCache cache, boolean passthrough) {
         this.rest = rest;
+        this.cache = cache != null && cache.isEnabled() ? cache : null;
+        this.passthrough = passthrough;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -79,20 +107,89 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected static String withCursor(String path, Map<String, Object> parameters, @Nullable String cursor) {
+        if (cursor == null) {
+            return path;
+        }
+        parameters.put("cursor", cursor);
+        return path + "&cursor={cursor}";
+    }
+
+    /**
+     * Тело ответа сервера копируется в ответ шлюза по мере получения, целиком в памяти не собирается
+     * и в кэш не попадает. Ответ сервера с ошибкой передаётся клиенту как есть.
+     */
+    protected void stream(String path, long userId, MediaType mediaType, HttpServletResponse response)
+            throws IOException {
+        URI uri = rest.getUriTemplateHandler().expand(path);
+        try {
+            rest.execute(uri, HttpMethod.GET,
+                    request -> {
+                        request.getHeaders().setAccept(List.of(mediaType, MediaType.APPLICATION_JSON));
+                        request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+                    },
+                    serverResponse -> {
+                        copyStatusAndHeaders(serverResponse.getRawStatusCode(), serverResponse.getHeaders(), response);
+                        StreamUtils.copy(serverResponse.getBody(), response.getOutputStream());
+                        return null;
+                    });
+        } catch (HttpStatusCodeException e) {
+            copyStatusAndHeaders(e.getRawStatusCode(), e.getResponseHeaders(), response);
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
+        response.flushBuffer();
+    }
+
+    private static void copyStatusAndHeaders(int status, @Nullable HttpHeaders serverHeaders,
+                                             HttpServletResponse response) {
+        response.setStatus(status);
+        if (serverHeaders != null) {
+            endToEndHeaders(serverHeaders).forEach((name, values) -> values.forEach(value ->
+                    response.addHeader(name, value)));
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        HttpHeaders headers = defaultHeaders(userId);
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        boolean cacheable = cache != null && method == HttpMethod.GET;
+        long generation = cacheable ? cache.generation() : 0;
+        ResponseCache.CachedResponse cached = cacheable ? cache.get(uri.toString(), userId) : null;
+        if (cached != null) {
+            if (cached.isFresh()) {
+                return cached.getResponse();
+            }
+            headers.setIfNoneMatch(cached.getETag());
+        }
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
 
         ResponseEntity<Object> shareitServerResponse;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
+            shareitServerResponse = exchange(uri, method, requestEntity);
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return toGatewayErrorResponse(e);
+        }
+        if (cached != null && shareitServerResponse.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            cache.put(uri.toString(), userId, cached.getResponse(), generation);
+            return cached.getResponse();
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        ResponseEntity<Object> gatewayResponse = prepareGatewayResponse(shareitServerResponse);
+        if (cacheable && shareitServerResponse.getStatusCode() == HttpStatus.OK) {
+            cache.put(uri.toString(), userId, gatewayResponse, generation);
+        } else if (cache != null && method != HttpMethod.GET) {
+            cache.invalidate(rest.getUriTemplateHandler().expand("").toString());
+        }
+        return gatewayResponse;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResponseEntity<Object> exchange(URI uri, HttpMethod method, HttpEntity<?> requestEntity) {
+        if (passthrough) {
+            return (ResponseEntity<Object>) (ResponseEntity<?>) rest.exchange(uri, method, requestEntity, byte[].class);
+        }
+        return rest.exchange(uri, method, requestEntity, Object.class);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -105,7 +202,12 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
+    private ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
+        if (passthrough) {
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(endToEndHeaders(response.getHeaders()))
+                    .body(response.getBody());
+        }
         if (response.getStatusCode().is2xxSuccessful()) {
             return response;
         }
@@ -118,4 +220,38 @@ public class BaseClient {
 
         return responseBuilder.build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Тело ошибки сервера передаётся байтами. Без passthrough сохраняется только Content-Type сервера,
+     * как в ReactiveBaseClient; пустое тело не передаётся.
+     */
+    private ResponseEntity<Object> toGatewayErrorResponse(HttpStatusCodeException e) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(e.getStatusCode());
+        HttpHeaders serverHeaders = e.getResponseHeaders();
+        if (passthrough && serverHeaders != null) {
+            responseBuilder.headers(endToEndHeaders(serverHeaders));
+        }
+        byte[] body = e.getResponseBodyAsByteArray();
+        if (body.length == 0) {
+            return responseBuilder.build();
+        }
+        if (!passthrough) {
+            MediaType contentType = serverHeaders != null ? serverHeaders.getContentType() : null;
+            responseBuilder.contentType(contentType != null ? contentType : MediaType.APPLICATION_JSON);
+        }
+        return responseBuilder.body(body);
+    }
+
+    /**
+     * Заголовки ответа сервера без hop-by-hop заголовков соединения шлюз-сервер.
+     */
+    static HttpHeaders endToEndHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.client;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Неблокирующий вариант BaseClient на WebClient: тот же разбор ответов сервера,
+ * тот же кэш GET-ответов с перепроверкой по ETag.
+ */
+public class ReactiveBaseClient {
+    protected final WebClient web;
+    private final UriBuilderFactory uriFactory;
+    private final String resourceUri;
+    @Nullable
+    private final ResponseCache cache;
+    private final boolean passthrough;
+
+    public ReactiveBaseClient(WebClient.Builder builder, String baseUrl, @Nullable ResponseCache cache) {
+        this(builder, baseUrl, cache, false);
+    }
+
+    public ReactiveBaseClient(WebClient.Builder builder, String baseUrl, @Nullable ResponseCache cache,
+                              boolean passthrough) {
+        this.uriFactory = new DefaultUriBuilderFactory(baseUrl);
+        this.web = builder.clone().uriBuilderFactory(uriFactory).build();
+        this.resourceUri = uriFactory.expand("").toString();
+        this.cache = cache != null && cache.isEnabled() ? cache : null;
+        this.passthrough = passthrough;
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path) {
+        return get(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
+        return get(path, userId, null);
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
+        return post(path, null, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
+        return post(path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
+        return patch(path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    }
+
+    protected Mono<ResponseEntity<Object>> delete(String path) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, null, null, null);
+    }
+
+    protected static String withCursor(String path, Map<String, Object> parameters, @Nullable String cursor) {
+        return BaseClient.withCursor(path, parameters, cursor);
+    }
+
+    /**
+     * Буферы тела ответа сервера передаются клиенту шлюза по мере получения, без сборки ответа в памяти
+     * и без кэша. Ответ сервера с ошибкой передаётся как есть.
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> stream(String path, long userId, MediaType mediaType) {
+        return web.get()
+                .uri(uriFactory.expand(path))
+                .headers(headers -> {
+                    headers.setAccept(List.of(mediaType, MediaType.APPLICATION_JSON));
+                    headers.set("X-Sharer-User-Id", String.valueOf(userId));
+                })
+                .retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(entity -> ResponseEntity.status(entity.getStatusCode())
+                        .headers(BaseClient.endToEndHeaders(entity.getHeaders()))
+                        .body(entity.getBody()));
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        URI uri = parameters != null ? uriFactory.expand(path, parameters) : uriFactory.expand(path);
+        boolean cacheable = cache != null && method == HttpMethod.GET;
+        long generation = cacheable ? cache.generation() : 0;
+        ResponseCache.CachedResponse cached = cacheable ? cache.get(uri.toString(), userId) : null;
+        if (cached != null && cached.isFresh()) {
+            return Mono.just(cached.getResponse());
+        }
+
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(uri)
+                .headers(headers -> {
+                    defaultHeaders(headers, userId);
+                    if (cached != null) {
+                        headers.setIfNoneMatch(cached.getETag());
+                    }
+                });
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.exchangeToMono(this::toGatewayResponse)
+                .map(response -> {
+                    if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                        cache.put(uri.toString(), userId, cached.getResponse(), generation);
+                        return cached.getResponse();
+                    }
+                    if (cacheable && response.getStatusCode() == HttpStatus.OK) {
+                        cache.put(uri.toString(), userId, response, generation);
+                    } else if (cache != null && method != HttpMethod.GET && response.getStatusCode().is2xxSuccessful()) {
+                        cache.invalidate(resourceUri);
+                    }
+                    return response;
+                });
+    }
+
+    private static void defaultHeaders(HttpHeaders headers, Long userId) {
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (userId != null) {
+            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        }
+    }
+
+    private Mono<ResponseEntity<Object>> toGatewayResponse(ClientResponse response) {
+        if (passthrough) {
+            HttpHeaders headers = BaseClient.endToEndHeaders(response.headers().asHttpHeaders());
+            return response.bodyToMono(byte[].class)
+                    .map(body -> ResponseEntity.status(response.statusCode()).headers(headers).<Object>body(body))
+                    .defaultIfEmpty(ResponseEntity.status(response.statusCode()).headers(headers).build());
+        }
+        if (response.statusCode().is2xxSuccessful() || response.statusCode() == HttpStatus.NOT_MODIFIED) {
+            return response.toEntity(Object.class);
+        }
+        return response.bodyToMono(byte[].class)
+                .map(body -> ResponseEntity.status(response.statusCode())
+                        .contentType(response.headers().contentType().orElse(MediaType.APPLICATION_JSON))
+                        .<Object>body(body))
+                .defaultIfEmpty(ResponseEntity.status(response.statusCode()).build());
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.client;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LRU-кэш успешных ответов сервера на GET-запросы, ключ - URI запроса и X-Sharer-User-Id.
+ * Записи свежие в течение ttl; устаревшая запись с ETag остаётся для условного запроса к серверу.
+ * POST/PATCH/DELETE через шлюз сбрасывают все записи того же ресурса
+ * (/items, /users, /bookings, /requests), изменения соседних ресурсов видны по истечении ttl.
+ * Ответ GET-запроса, начатого до сброса своего ресурса, в кэш не сохраняется: для этого запрос
+ * запоминает generation() перед отправкой, а сброс отмечает ресурс новым поколением.
+ */
+@Component
+public class ResponseCache {
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries;
+    private final Map<String, Long> invalidations = new HashMap<>();
+    private final Lock lock = new ReentrantLock();
+    private long generation;
+
+    public ResponseCache(@Value("${gateway.cache.enabled:true}") boolean enabled,
+                         @Value("${gateway.cache.ttl:5s}") Duration ttl,
+                         @Value("${gateway.cache.max-entries:10000}") int maxEntries) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Nullable
+    public CachedResponse get(String uri, @Nullable Long userId) {
+        Key key = new Key(uri, userId);
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            boolean fresh = System.nanoTime() - entry.storedAt <= ttlNanos;
+            if (!fresh && entry.response.getHeaders().getETag() == null) {
+                entries.remove(key);
+                return null;
+            }
+            return new CachedResponse(entry.response, fresh);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long generation() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param since поколение кэша, прочитанное до отправки запроса к серверу
+     */
+    public void put(String uri, @Nullable Long userId, ResponseEntity<Object> response, long since) {
+        lock.lock();
+        try {
+            boolean invalidated = invalidations.entrySet().stream()
+                    .anyMatch(invalidation -> invalidation.getValue() > since && uri.startsWith(invalidation.getKey()));
+            if (invalidated) {
+                return;
+            }
+            entries.put(new Key(uri, userId), new Entry(response, System.nanoTime()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(String resourceUri) {
+        lock.lock();
+        try {
+            invalidations.put(resourceUri, ++generation);
+            entries.keySet().removeIf(key -> key.uri.startsWith(resourceUri));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CachedResponse {
+        private final ResponseEntity<Object> response;
+        private final boolean fresh;
+
+        @Nullable
+        public String getETag() {
+            return response.getHeaders().getETag();
+        }
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final String uri;
+        private final Long userId;
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final ResponseEntity<Object> response;
+        private final long storedAt;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.util.List;
+
+/**
+ * Строгий ETag по хэшу тела ответа на GET и ответ 304 на совпадающий If-None-Match.
+ * ETag, полученный от сервера, фильтр сохраняет и сравнивает с If-None-Match клиента.
+ * В режиме WebFlux то же делает ReactiveEtagFilter.
+ */
+@Configuration
+public class EtagConfig {
+    static final List<String> RESOURCES = List.of("/items", "/users", "/bookings", "/requests");
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        RESOURCES.forEach(resource -> registration.addUrlPatterns(resource + "/*"));
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public ReactiveEtagFilter reactiveEtagFilter() {
+        return new ReactiveEtagFilter(RESOURCES);
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.config;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Аналог ShallowEtagHeaderFilter для WebFlux: тело успешного ответа на GET собирается целиком,
+ * по его MD5 выставляется строгий ETag, при совпадении с If-None-Match клиенту уходит 304 без тела.
+ * ETag, полученный от сервера, сохраняется. Потоковые ответы исключаются через disableContentCaching.
+ */
+public class ReactiveEtagFilter implements WebFilter {
+    private static final String DISABLE_CONTENT_CACHING_ATTRIBUTE =
+            ReactiveEtagFilter.class.getName() + ".DISABLE_CONTENT_CACHING";
+    private static final String DIRECTIVE_NO_STORE = "no-store";
+    private final List<String> resources;
+
+    public ReactiveEtagFilter(List<String> resources) {
+        this.resources = resources;
+    }
+
+    public static void disableContentCaching(ServerWebExchange exchange) {
+        exchange.getAttributes().put(DISABLE_CONTENT_CACHING_ATTRIBUTE, true);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (exchange.getRequest().getMethod() != HttpMethod.GET || !isResource(exchange.getRequest().getPath().value())) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange.mutate().response(new EtagResponse(exchange)).build());
+    }
+
+    private boolean isResource(String path) {
+        return resources.stream().anyMatch(resource -> path.equals(resource) || path.startsWith(resource + "/"));
+    }
+
+    private static String generateETag(byte[] body) {
+        return "\"0" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    private static boolean matches(String eTag, List<String> ifNoneMatch) {
+        String strong = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        return ifNoneMatch.stream()
+                .anyMatch(candidate -> candidate.equals("*")
+                        || (candidate.startsWith("W/") ? candidate.substring(2) : candidate).equals(strong));
+    }
+
+    private static class EtagResponse extends ServerHttpResponseDecorator {
+        private final ServerWebExchange exchange;
+
+        EtagResponse(ServerWebExchange exchange) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!isEligibleForEtag()) {
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(body)
+                    .map(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+                        return bytes;
+                    })
+                    .defaultIfEmpty(new byte[0])
+                    .flatMap(this::writeWithEtag);
+        }
+
+        private Mono<Void> writeWithEtag(byte[] body) {
+            ServerHttpResponse response = getDelegate();
+            HttpHeaders headers = response.getHeaders();
+            String eTag = headers.getETag();
+            if (eTag == null) {
+                eTag = generateETag(body);
+                headers.setETag(eTag);
+            }
+            if (matches(eTag, exchange.getRequest().getHeaders().getIfNoneMatch())) {
+                response.setStatusCode(HttpStatus.NOT_MODIFIED);
+                headers.remove(HttpHeaders.CONTENT_TYPE);
+                headers.setContentLength(0);
+                return response.setComplete();
+            }
+            headers.setContentLength(body.length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        }
+
+        private boolean isEligibleForEtag() {
+            if (exchange.getAttribute(DISABLE_CONTENT_CACHING_ATTRIBUTE) != null) {
+                return false;
+            }
+            HttpStatus status = getStatusCode();
+            if (status != null && !status.is2xxSuccessful()) {
+                return false;
+            }
+            String cacheControl = getHeaders().getCacheControl();
+            return cacheControl == null || !cacheControl.contains(DIRECTIVE_NO_STORE);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.item.dto.AvailabilityGranularity;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ItemReactiveClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/items";
+
+    public ItemReactiveClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                              ResponseCache cache,
+                              @Value("${gateway.passthrough.enabled:true}") boolean passthrough) {
+        super(builder, serverUrl + API_PREFIX, cache, passthrough);
+    }
+
+    public Mono<ResponseEntity<Object>> addItem(long userId, ItemDto itemDto) {
+        return post("", userId, itemDto);
+    }
+
+    public Mono<ResponseEntity<Object>> addItems(long userId, List<ItemDto> itemDtos) {
+        return post("/batch", userId, itemDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> renewalItem(long userId, ItemDto itemDto, long itemId) {
+        return patch("/" + itemId, userId, itemDto);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemById(long userId, long itemId) {
+        return get("/" + itemId, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to,
+            AvailabilityGranularity granularity) {
+        final Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to,
+                "granularity", granularity.name()
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}&granularity={granularity}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getPersonal(long userId, Integer from, Integer size, String cursor) {
+        final Map<String, Object> parameters = new HashMap<>(Map.of(
+                "from", from,
+                "size", size
+        ));
+        return get(withCursor("?from={from}&size={size}", parameters, cursor), userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> searchItem(long userId, String text, Integer from, Integer size, Boolean rank) {
+        final Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size,
+                "rank", rank
+        );
+        return get("/search?text={text}&from={from}&size={size}&rank={rank}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> searchAvailableItem(long userId, String text, LocalDateTime start, LocalDateTime end,
+            Integer from, Integer size) {
+        final Map<String, Object> parameters = Map.of(
+                "text", text,
+                "start", start,
+                "end", end,
+                "from", from,
+                "size", size
+        );
+        return get("/search/available?text={text}&start={start}&end={end}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> addComment(long userId, long itemId, CommentDto commentDto) {
+        return post("/" + itemId + "/comment", userId, commentDto);
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.AvailabilityGranularity;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.messages.LogMessages;
+import ru.practicum.shareit.messages.ValidationMessages;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Validated
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/items")
+@RequiredArgsConstructor
+public class ItemReactiveController {
+    private final ItemReactiveClient itemReactiveClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> addItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                @Valid @RequestBody ItemDto itemDto) {
+        log.info(LogMessages.ADD_ITEM.toString(), itemDto, userId);
+        return itemReactiveClient.addItem(userId, itemDto);
+    }
+
+    /**
+     * Строки пакета проверяет сервер и возвращает ошибки по каждой строке, здесь ограничивается только размер.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> addItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @RequestBody @Size(min = 1, max = 5000, message = ValidationMessages.ITEM_BATCH_SIZE)
+                                                 List<ItemDto> itemDtos) {
+        log.info(LogMessages.ADD_ITEMS.toString(), itemDtos.size(), userId);
+        return itemReactiveClient.addItems(userId, itemDtos);
+    }
+
+    @PatchMapping("/{itemId}")
+    public Mono<ResponseEntity<Object>> renewalBooking(@PathVariable long itemId,
+                                                       @RequestBody ItemDto itemDto,
+                                                       @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info(LogMessages.RENEWAL_ITEM.toString(), itemId, userId);
+        return itemReactiveClient.renewalItem(userId, itemDto, itemId);
+    }
+
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<Object>> getItemById(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                    @PathVariable long itemId) {
+        log.info(LogMessages.GET_ITEM_BY_ID.toString(), itemId, ownerId);
+        return itemReactiveClient.getItemById(ownerId, itemId);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                        @PathVariable long itemId,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                        @RequestParam(name = "granularity", defaultValue = "day") String granularityParam) {
+        AvailabilityGranularity granularity = AvailabilityGranularity.from(granularityParam)
+                .orElseThrow(() -> new IllegalArgumentException(ValidationMessages.UNKNOWN_GRANULARITY + granularityParam));
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException(ValidationMessages.AVAILABILITY_PERIOD);
+        }
+        log.info(LogMessages.GET_AVAILABILITY.toString(), itemId, from, to, granularity, userId);
+        return itemReactiveClient.getAvailability(userId, itemId, from, to, granularity);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getPersonal(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                                    @RequestParam(name = "size", defaultValue = "10") @Min(1) Integer size,
+                                                    @RequestParam(name = "cursor", required = false) String cursor) {
+        log.info(LogMessages.GET_ALL_REQUEST.toString(), userId, from, size);
+        return itemReactiveClient.getPersonal(userId, from, size, cursor);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Object>> searchItem(@RequestHeader(value = "X-Sharer-User-Id") long userId,
+                                                   @RequestParam String text,
+                                                   @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                                   @RequestParam(name = "size", defaultValue = "10") @Min(1) Integer size,
+                                                   @RequestParam(name = "rank", defaultValue = "false") Boolean rank) {
+        log.info(LogMessages.SEARCH_REQUEST.toString(), text, userId, from, size);
+        return itemReactiveClient.searchItem(userId, text, from, size, rank);
+    }
+
+    @GetMapping("/search/available")
+    public Mono<ResponseEntity<Object>> searchAvailableItem(@RequestHeader(value = "X-Sharer-User-Id") long userId,
+                                                            @RequestParam String text,
+                                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                                            @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                                            @RequestParam(name = "size", defaultValue = "10") @Min(1) Integer size) {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException(ValidationMessages.AVAILABILITY_PERIOD);
+        }
+        log.info(LogMessages.SEARCH_AVAILABLE_REQUEST.toString(), text, start, end, userId, from, size);
+        return itemReactiveClient.searchAvailableItem(userId, text, start, end, from, size);
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader(value = "X-Sharer-User-Id") long userId,
+                                       @PathVariable long itemId,
+                                       @Valid @RequestBody CommentDto commentDto) {
+        log.info(LogMessages.COMMENT_REQUEST.toString(), itemId, userId);
+        return itemReactiveClient.addComment(userId, itemId, commentDto);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import java.util.Optional;
+
+public enum AvailabilityGranularity {
+    // Час
+    HOUR,
+    // Сутки
+    DAY;
+
+    public static Optional<AvailabilityGranularity> from(String stringGranularity) {
+        for (AvailabilityGranularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(stringGranularity)) {
+                return Optional.of(granularity);
+            }
+        }
+        return Optional.empty();
+    }
+}
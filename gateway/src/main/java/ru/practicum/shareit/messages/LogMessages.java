@@ -4,6 +4,7 @@ public enum LogMessages {
     GET_BOOKINGS("Запрос на получение бронирования со статусом {}, id пользователя={}, from={}, size={}"),
     BOOK_ITEM("Запрос на создание бронирования {}, id пользователя={}"),
     ADD_ITEM("Запрос на создание вещи {}, id пользователя={}"),
+    ADD_ITEMS("Запрос на пакетное создание вещей, строк: {}, id пользователя={}"),
     ADD_USER("Запрос на создание пользователя, id пользователя={}"),
     ADD_ITEM_REQUEST_REQUEST("Запрос на добавление нового запроса вещи {}, id пользователя={}"),
     GET_BOOKING("Запрос на получение бронирования {}, id пользователя={}"),
@@ -15,12 +16,18 @@ public enum LogMessages {
     GET_ALL_USERS("Запрос на получение списка всех пользователей"),
     GET_ALL_REQUEST("Запрос владельцем списка всех его вещей, id пользователя={}, from={}, size={}"),
     SEARCH_REQUEST("Запрос на поиск вещи по слову {}, id пользователя={}, from={}, size={}"),
+    SEARCH_AVAILABLE_REQUEST("Запрос на поиск вещи по слову {}, свободной с {} по {}, id пользователя={}, from={}, size={}"),
+    GET_AVAILABILITY("Запрос занятости вещи с id {} с {} по {}, шаг {}, id пользователя={}"),
     GET_ALL_BY_OWNER("Запрос на получение списка бронирований всех предметов со статусом {}, id пользователя={}, from={}, size={}"),
+    EXPORT_OWNER_BOOKINGS("Запрос на выгрузку истории бронирований всех предметов, id пользователя={}"),
     RENEWAL_BOOKING("Запрос на подтверждение/отклонение бронирования с id {}, id пользователя={}"),
+    RENEWAL_BOOKINGS("Запрос на подтверждение/отклонение бронирований, решений: {}, id пользователя={}"),
     RENEWAL_ITEM("Запрос на обровление вещи с id {}, id пользователя={}"),
     RENEWAL_USER("Запрос на обровление пользователя, id пользователя={}"),
     COMMENT_REQUEST("Запрос на добавление комментария вещи с id {}, id пользователя={}"),
     REMOVE_REQUEST("Запрос на удаление пользователя, id пользователя={}"),
+    VIRTUAL_THREADS_ENABLED("Запросы Tomcat и асинхронные задачи выполняются в виртуальных потоках"),
+    VIRTUAL_THREADS_UNAVAILABLE("Виртуальные потоки недоступны в Java "),
     BAD_REQUEST_STATUS("Ошибка 400!"),
     INTERNAL_SERVER_ERROR_STATUS("Ошибка 500! {}");
 
@@ -9,5 +9,10 @@ public interface ValidationMessages {
     String INCORRECT_EMAIL = "Некорректный email";
     String EMPTY_EMAIL = "email не может быть пустым";
     String AVAILABLE_NULL = "Статус доступности вещи отсутствует";
+    String ITEM_BATCH_SIZE = "Пакет должен содержать от 1 до 5000 вещей";
+    String BOOKING_BATCH_SIZE = "Пакет должен содержать от 1 до 1000 решений по бронированиям";
+    String BOOKING_DECISION_EMPTY = "Пакет не может содержать пустых решений по бронированиям";
+    String AVAILABILITY_PERIOD = "Начало периода занятости должно быть раньше его конца";
+    String UNKNOWN_GRANULARITY = "Unknown granularity: ";
     String EMPTY_TEXT = "Отсутствует текст поискового запроса";
 }
\ No newline at end of file
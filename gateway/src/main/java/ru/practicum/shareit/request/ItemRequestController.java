@@ -2,6 +2,7 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -16,6 +17,7 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 @Validated
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor
 public class ItemRequestController {
@@ -37,9 +39,10 @@ public class ItemRequestController {
     @GetMapping("all")
     public ResponseEntity<Object> getOtherUsersRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                         @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
-                                                        @RequestParam(name = "size", defaultValue = "10") @Min(1) Integer size) {
+                                                        @RequestParam(name = "size", defaultValue = "10") @Min(1) Integer size,
+                                                        @RequestParam(name = "cursor", required = false) String cursor) {
         log.info(LogMessages.GET_OTHER_REQUESTS.toString(), userId, from, size);
-        return itemRequestClient.getOtherUsersRequests(userId, from, size);
+        return itemRequestClient.getOtherUsersRequests(userId, from, size, cursor);
     }
 
     @GetMapping("{requestId}")
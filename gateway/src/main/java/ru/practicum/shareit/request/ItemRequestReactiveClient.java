@@ -0,0 +1,46 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.request.dto.AddItemRequestDto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ItemRequestReactiveClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/requests";
+
+    public ItemRequestReactiveClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                                     ResponseCache cache,
+                                     @Value("${gateway.passthrough.enabled:true}") boolean passthrough) {
+        super(builder, serverUrl + API_PREFIX, cache, passthrough);
+    }
+
+    public Mono<ResponseEntity<Object>> addRequest(long userId, AddItemRequestDto addItemRequestDto) {
+        return post("", userId, addItemRequestDto);
+    }
+
+    public Mono<ResponseEntity<Object>> getUserRequests(long userId) {
+        return get("", userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getOtherUsersRequests(long userId, Integer from, Integer size, String cursor) {
+        final Map<String, Object> parameters = new HashMap<>(Map.of(
+                "from", from,
+                "size", size
+        ));
+        return get(withCursor("/all?from={from}&size={size}", parameters, cursor), userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemRequestById(long userId, long requestId) {
+        return get("/" + requestId, userId);
+    }
+}
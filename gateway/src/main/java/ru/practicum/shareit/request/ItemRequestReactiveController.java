@@ -0,0 +1,55 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.messages.LogMessages;
+import ru.practicum.shareit.request.dto.AddItemRequestDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.PositiveOrZero;
+
+@Slf4j
+@Validated
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/requests")
+@RequiredArgsConstructor
+public class ItemRequestReactiveController {
+    private final ItemRequestReactiveClient itemRequestReactiveClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> addRequest(@Valid @RequestBody AddItemRequestDto addItemRequestDto,
+                                                   @RequestHeader("X-Sharer-User-Id") Long requestorId) {
+        log.info(LogMessages.ADD_ITEM_REQUEST_REQUEST.toString(), addItemRequestDto, requestorId);
+        return itemRequestReactiveClient.addRequest(requestorId, addItemRequestDto);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getUserRequests(@RequestHeader("X-Sharer-User-Id") Long requestorId) {
+        log.info(LogMessages.GET_REQUESTS.toString(), requestorId);
+        return itemRequestReactiveClient.getUserRequests(requestorId);
+    }
+
+    @GetMapping("all")
+    public Mono<ResponseEntity<Object>> getOtherUsersRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                              @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                                              @RequestParam(name = "size", defaultValue = "10") @Min(1) Integer size,
+                                                              @RequestParam(name = "cursor", required = false) String cursor) {
+        log.info(LogMessages.GET_OTHER_REQUESTS.toString(), userId, from, size);
+        return itemRequestReactiveClient.getOtherUsersRequests(userId, from, size, cursor);
+    }
+
+    @GetMapping("{requestId}")
+    public Mono<ResponseEntity<Object>> getItemRequestById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @PathVariable Long requestId) {
+        log.info(LogMessages.GET_REQUEST.toString(), requestId, userId);
+        return itemRequestReactiveClient.getItemRequestById(userId, requestId);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.user.dto.UserDto;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class UserReactiveClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/users";
+
+    public UserReactiveClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                              ResponseCache cache,
+                              @Value("${gateway.passthrough.enabled:true}") boolean passthrough) {
+        super(builder, serverUrl + API_PREFIX, cache, passthrough);
+    }
+
+    public Mono<ResponseEntity<Object>> addUser(UserDto userDto) {
+        return post("", userDto);
+    }
+
+    public Mono<ResponseEntity<Object>> renewalUser(long userId, UserDto userDto) {
+        return patch("/" + userId, userId, userDto);
+    }
+
+    public Mono<ResponseEntity<Object>> getUserById(long userId) {
+        return get("/" + userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getListOfUsers() {
+        return get("");
+    }
+
+    public Mono<ResponseEntity<Object>> removeUserById(long userId) {
+        return delete("/" + userId);
+    }
+}
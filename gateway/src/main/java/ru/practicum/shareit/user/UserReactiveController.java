@@ -0,0 +1,52 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.messages.LogMessages;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.validation.Valid;
+
+@Slf4j
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/users")
+@RequiredArgsConstructor
+public class UserReactiveController {
+    private final UserReactiveClient userReactiveClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> addUser(@Valid @RequestBody UserDto userDto) {
+        log.info(LogMessages.ADD_USER.toString(), userDto);
+        return userReactiveClient.addUser(userDto);
+    }
+
+    @PatchMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> renewalUser(@PathVariable long userId, @RequestBody UserDto userDto) {
+        log.info(LogMessages.RENEWAL_USER.toString(), userId);
+        return userReactiveClient.renewalUser(userId, userDto);
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable long userId) {
+        log.info(LogMessages.GET_USER_BY_ID.toString(), userId);
+        return userReactiveClient.getUserById(userId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getListOfUsers() {
+        log.info(LogMessages.GET_ALL_USERS.toString());
+        return userReactiveClient.getListOfUsers();
+    }
+
+    @DeleteMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> removeUserById(@PathVariable long userId) {
+        log.info(LogMessages.REMOVE_REQUEST.toString(), userId);
+        return userReactiveClient.removeUserById(userId);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = BookingController.class)
+class BookingControllerTest {
+    @Autowired
+    private MockMvc mvc;
+    @MockBean
+    private BookingClient bookingClient;
+
+    @Test
+    public void renewalBookingsWithNullDecisionIsRejected() throws Exception {
+        mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"bookingId\":1,\"approved\":true},null]"))
+                .andExpect(status().isBadRequest());
+        verify(bookingClient, never()).renewalBookings(anyLong(), any());
+    }
+
+    @Test
+    public void renewalBookingsIsForwarded() throws Exception {
+        when(bookingClient.renewalBookings(anyLong(), any())).thenReturn(ResponseEntity.ok(List.of()));
+
+        mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"bookingId\":1,\"approved\":true}]"))
+                .andExpect(status().isOk());
+        verify(bookingClient).renewalBookings(anyLong(), any());
+    }
+}
@@ -0,0 +1,210 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+    private static final String ITEMS = "http://localhost:9090/items";
+    private RestTemplate rest;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(ITEMS));
+        server = MockRestServiceServer.bindTo(rest).build();
+    }
+
+    @Test
+    public void freshResponseIsServedFromCache() {
+        TestClient client = new TestClient(rest, new ResponseCache(true, Duration.ofMinutes(1), 10), false);
+        server.expect(once(), requestTo(ITEMS + "/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> first = client.getItem(1L, 1L);
+        ResponseEntity<Object> second = client.getItem(1L, 1L);
+
+        server.verify();
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertEquals(first.getBody(), second.getBody());
+        assertEquals(Map.of("id", 1), second.getBody());
+    }
+
+    @Test
+    public void expiredResponseIsRevalidatedWithEtag() throws InterruptedException {
+        TestClient client = new TestClient(rest, new ResponseCache(true, Duration.ofMillis(1), 10), false);
+        HttpHeaders etag = new HttpHeaders();
+        etag.setETag("\"v1\"");
+        server.expect(once(), requestTo(ITEMS + "/1"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON).headers(etag));
+        server.expect(once(), requestTo(ITEMS + "/1"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(etag));
+
+        client.getItem(1L, 1L);
+        Thread.sleep(5);
+        ResponseEntity<Object> revalidated = client.getItem(1L, 1L);
+
+        server.verify();
+        assertEquals(HttpStatus.OK, revalidated.getStatusCode());
+        assertEquals(Map.of("id", 1), revalidated.getBody());
+    }
+
+    @Test
+    public void writeInvalidatesResponsesCachedForOtherUsers() {
+        TestClient client = new TestClient(rest, new ResponseCache(true, Duration.ofMinutes(1), 10), false);
+        server.expect(once(), requestTo(ITEMS + "/1"))
+                .andExpect(header("X-Sharer-User-Id", "2"))
+                .andRespond(withSuccess("{\"name\":\"old\"}", MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo(ITEMS))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{\"id\":2}", MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo(ITEMS + "/1"))
+                .andExpect(header("X-Sharer-User-Id", "2"))
+                .andRespond(withSuccess("{\"name\":\"new\"}", MediaType.APPLICATION_JSON));
+
+        client.getItem(2L, 1L);
+        client.addItem(1L, Map.of("name", "item"));
+        ResponseEntity<Object> afterWrite = client.getItem(2L, 1L);
+
+        server.verify();
+        assertEquals(Map.of("name", "new"), afterWrite.getBody());
+    }
+
+    @Test
+    public void responseOfGetOverlappingWriteIsNotCached() {
+        TestClient client = new TestClient(rest, new ResponseCache(true, Duration.ofMinutes(1), 10), false);
+        server.expect(once(), requestTo(ITEMS + "/1"))
+                .andRespond(request -> {
+                    client.addItem(1L, Map.of("name", "new"));
+                    return withSuccess("{\"name\":\"old\"}", MediaType.APPLICATION_JSON).createResponse(request);
+                });
+        server.expect(once(), requestTo(ITEMS))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo(ITEMS + "/1"))
+                .andRespond(withSuccess("{\"name\":\"new\"}", MediaType.APPLICATION_JSON));
+
+        assertEquals(Map.of("name", "old"), client.getItem(1L, 1L).getBody());
+        ResponseEntity<Object> afterWrite = client.getItem(1L, 1L);
+
+        server.verify();
+        assertEquals(Map.of("name", "new"), afterWrite.getBody());
+    }
+
+    @Test
+    public void passthroughKeepsStatusHeadersAndBodyBytes() {
+        TestClient client = new TestClient(rest, null, true);
+        byte[] body = "{ \"id\" : 1 }".getBytes(StandardCharsets.UTF_8);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Total-Count", "1");
+        headers.setConnection("keep-alive");
+        server.expect(once(), requestTo(ITEMS + "/1"))
+                .andRespond(withStatus(HttpStatus.CREATED)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .headers(headers)
+                        .body(body));
+
+        ResponseEntity<Object> response = client.getItem(1L, 1L);
+
+        server.verify();
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("1", response.getHeaders().getFirst("X-Total-Count"));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONNECTION));
+        assertArrayEquals(body, (byte[]) response.getBody());
+    }
+
+    @Test
+    public void passthroughErrorKeepsServerResponse() {
+        TestClient client = new TestClient(rest, null, true);
+        byte[] body = "{\"error\":\"not found\"}".getBytes(StandardCharsets.UTF_8);
+        server.expect(once(), requestTo(ITEMS + "/1"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                        .headers(traceHeaders())
+                        .body(body));
+
+        ResponseEntity<Object> response = client.getItem(1L, 1L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_PROBLEM_JSON, response.getHeaders().getContentType());
+        assertEquals("abc", response.getHeaders().getFirst("X-Trace-Id"));
+        assertArrayEquals(body, (byte[]) response.getBody());
+    }
+
+    @Test
+    public void errorKeepsServerContentTypeWithoutPassthrough() {
+        TestClient client = new TestClient(rest, null, false);
+        server.expect(once(), requestTo(ITEMS + "/1"))
+                .andRespond(withStatus(HttpStatus.BAD_REQUEST)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .headers(traceHeaders())
+                        .body("bad request"));
+
+        ResponseEntity<Object> response = client.getItem(1L, 1L);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(MediaType.TEXT_PLAIN, response.getHeaders().getContentType());
+        assertFalse(response.getHeaders().containsKey("X-Trace-Id"));
+        assertArrayEquals("bad request".getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    public void errorWithoutBodyHasNoBody() {
+        TestClient client = new TestClient(rest, null, false);
+        server.expect(once(), requestTo(ITEMS + "/1"))
+                .andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        ResponseEntity<Object> response = client.getItem(1L, 1L);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertFalse(response.hasBody());
+        assertNull(response.getHeaders().getContentType());
+    }
+
+    private static HttpHeaders traceHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Trace-Id", "abc");
+        return headers;
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(RestTemplate rest, ResponseCache cache, boolean passthrough) {
+            super(rest, cache, passthrough);
+        }
+
+        ResponseEntity<Object> getItem(long userId, long itemId) {
+            return get("/" + itemId, userId);
+        }
+
+        ResponseEntity<Object> addItem(long userId, Object body) {
+            return post("", userId, body);
+        }
+    }
+}
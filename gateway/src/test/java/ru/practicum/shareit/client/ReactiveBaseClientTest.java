@@ -0,0 +1,82 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReactiveBaseClientTest {
+    private static final String ITEMS = "http://localhost:9090/items";
+
+    @Test
+    public void passthroughKeepsStatusHeadersAndBodyBytes() {
+        String body = "{ \"id\" : 1 }";
+        TestClient client = new TestClient(respondingWith(ClientResponse.create(HttpStatus.CREATED)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header("X-Total-Count", "1")
+                .header(HttpHeaders.CONNECTION, "keep-alive")
+                .body(body)
+                .build()), true);
+
+        ResponseEntity<Object> response = client.getItem(1L, 1L).block();
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("1", response.getHeaders().getFirst("X-Total-Count"));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONNECTION));
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    public void errorKeepsServerContentTypeWithoutPassthrough() {
+        TestClient client = new TestClient(respondingWith(ClientResponse.create(HttpStatus.BAD_REQUEST)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN_VALUE)
+                .header("X-Trace-Id", "abc")
+                .body("bad request")
+                .build()), false);
+
+        ResponseEntity<Object> response = client.getItem(1L, 1L).block();
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(MediaType.TEXT_PLAIN, response.getHeaders().getContentType());
+        assertFalse(response.getHeaders().containsKey("X-Trace-Id"));
+        assertArrayEquals("bad request".getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    public void errorWithoutBodyHasNoBody() {
+        TestClient client = new TestClient(respondingWith(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR)
+                .build()), false);
+
+        ResponseEntity<Object> response = client.getItem(1L, 1L).block();
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertFalse(response.hasBody());
+        assertNull(response.getHeaders().getContentType());
+    }
+
+    private static WebClient.Builder respondingWith(ClientResponse response) {
+        return WebClient.builder().exchangeFunction(request -> Mono.just(response));
+    }
+
+    private static class TestClient extends ReactiveBaseClient {
+        TestClient(WebClient.Builder builder, boolean passthrough) {
+            super(builder, ITEMS, null, passthrough);
+        }
+
+        Mono<ResponseEntity<Object>> getItem(long userId, long itemId) {
+            return get("/" + itemId, userId);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCacheTest {
+    private static final String ITEMS = "http://localhost:9090/items";
+    private static final String USERS = "http://localhost:9090/users";
+
+    @Test
+    public void getReturnsFreshEntryOfSameUser() {
+        ResponseCache cache = new ResponseCache(true, Duration.ofMinutes(1), 10);
+        ResponseEntity<Object> response = ResponseEntity.ok("item");
+        cache.put(ITEMS + "/1", 1L, response, cache.generation());
+
+        ResponseCache.CachedResponse cached = cache.get(ITEMS + "/1", 1L);
+
+        assertNotNull(cached);
+        assertTrue(cached.isFresh());
+        assertEquals(response, cached.getResponse());
+        assertNull(cache.get(ITEMS + "/1", 2L));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedEntry() {
+        ResponseCache cache = new ResponseCache(true, Duration.ofMinutes(1), 2);
+        cache.put(ITEMS + "/1", 1L, ResponseEntity.ok("first"), cache.generation());
+        cache.put(ITEMS + "/2", 1L, ResponseEntity.ok("second"), cache.generation());
+        cache.get(ITEMS + "/1", 1L);
+
+        cache.put(ITEMS + "/3", 1L, ResponseEntity.ok("third"), cache.generation());
+
+        assertNotNull(cache.get(ITEMS + "/1", 1L));
+        assertNull(cache.get(ITEMS + "/2", 1L));
+        assertNotNull(cache.get(ITEMS + "/3", 1L));
+    }
+
+    @Test
+    public void expiredEntryWithoutEtagIsDropped() throws InterruptedException {
+        ResponseCache cache = new ResponseCache(true, Duration.ofMillis(1), 10);
+        cache.put(ITEMS + "/1", 1L, ResponseEntity.ok("item"), cache.generation());
+        Thread.sleep(5);
+
+        assertNull(cache.get(ITEMS + "/1", 1L));
+    }
+
+    @Test
+    public void expiredEntryWithEtagIsKeptForRevalidation() throws InterruptedException {
+        ResponseCache cache = new ResponseCache(true, Duration.ofMillis(1), 10);
+        ResponseEntity<Object> response = ResponseEntity.ok().header(HttpHeaders.ETAG, "\"v1\"").body("item");
+        cache.put(ITEMS + "/1", 1L, response, cache.generation());
+        Thread.sleep(5);
+
+        ResponseCache.CachedResponse cached = cache.get(ITEMS + "/1", 1L);
+
+        assertNotNull(cached);
+        assertFalse(cached.isFresh());
+        assertEquals("\"v1\"", cached.getETag());
+    }
+
+    @Test
+    public void invalidateDropsEntriesOfResourceCachedForAnyUser() {
+        ResponseCache cache = new ResponseCache(true, Duration.ofMinutes(1), 10);
+        cache.put(ITEMS + "/1", 1L, ResponseEntity.ok("item of first user"), cache.generation());
+        cache.put(ITEMS + "?from=0&size=10", 2L, ResponseEntity.ok("items of second user"), cache.generation());
+        cache.put(USERS + "/1", 1L, ResponseEntity.ok("user"), cache.generation());
+
+        cache.invalidate(ITEMS);
+
+        assertNull(cache.get(ITEMS + "/1", 1L));
+        assertNull(cache.get(ITEMS + "?from=0&size=10", 2L));
+        assertNotNull(cache.get(USERS + "/1", 1L));
+    }
+
+    @Test
+    public void responseOfRequestStartedBeforeInvalidationIsNotStored() {
+        ResponseCache cache = new ResponseCache(true, Duration.ofMinutes(1), 10);
+        long itemsRequestStarted = cache.generation();
+        long usersRequestStarted = cache.generation();
+
+        cache.invalidate(ITEMS);
+        cache.put(ITEMS + "/1", 1L, ResponseEntity.ok("item before update"), itemsRequestStarted);
+        cache.put(USERS + "/1", 1L, ResponseEntity.ok("user"), usersRequestStarted);
+
+        assertNull(cache.get(ITEMS + "/1", 1L));
+        assertNotNull(cache.get(USERS + "/1", 1L));
+
+        cache.put(ITEMS + "/1", 1L, ResponseEntity.ok("item after update"), cache.generation());
+
+        assertNotNull(cache.get(ITEMS + "/1", 1L));
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReactiveEtagFilterTest {
+    private static final String BODY = "{\"id\":1}";
+    private final ReactiveEtagFilter filter = new ReactiveEtagFilter(List.of("/items"));
+
+    @Test
+    public void getResponseGetsEtagAndMatchingRequestGets304() {
+        MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest.get("/items/1"));
+        filter.filter(first, writing(BODY)).block();
+        String eTag = first.getResponse().getHeaders().getETag();
+
+        assertNotNull(eTag);
+        assertEquals(BODY, first.getResponse().getBodyAsString().block());
+
+        MockServerWebExchange second = MockServerWebExchange.from(MockServerHttpRequest.get("/items/1")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag));
+        filter.filter(second, writing(BODY)).block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getResponse().getStatusCode());
+        assertEquals(eTag, second.getResponse().getHeaders().getETag());
+        assertEquals("", second.getResponse().getBodyAsString().defaultIfEmpty("").block());
+    }
+
+    @Test
+    public void serverEtagIsKept() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/items/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"server\""));
+        WebFilterChain chain = current -> {
+            current.getResponse().getHeaders().setETag("\"server\"");
+            return write(current, BODY);
+        };
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, exchange.getResponse().getStatusCode());
+        assertEquals("\"server\"", exchange.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    public void errorPostAndDisabledResponsesGetNoEtag() {
+        MockServerWebExchange error = MockServerWebExchange.from(MockServerHttpRequest.get("/items/1"));
+        filter.filter(error, current -> {
+            current.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
+            return write(current, BODY);
+        }).block();
+        MockServerWebExchange post = MockServerWebExchange.from(MockServerHttpRequest.post("/items"));
+        filter.filter(post, writing(BODY)).block();
+        MockServerWebExchange disabled = MockServerWebExchange.from(MockServerHttpRequest.get("/items/1"));
+        filter.filter(disabled, current -> {
+            ReactiveEtagFilter.disableContentCaching(current);
+            return write(current, BODY);
+        }).block();
+
+        assertNull(error.getResponse().getHeaders().getETag());
+        assertNull(post.getResponse().getHeaders().getETag());
+        assertNull(disabled.getResponse().getHeaders().getETag());
+        assertEquals(BODY, disabled.getResponse().getBodyAsString().block());
+    }
+
+    private static WebFilterChain writing(String body) {
+        return exchange -> write(exchange, body);
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, String body) {
+        ServerHttpResponse response = exchange.getResponse();
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+    }
+}
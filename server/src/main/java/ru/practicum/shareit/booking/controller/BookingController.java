@@ -1,14 +1,26 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.messages.LogMessages;
 
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -20,6 +32,7 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 public class BookingController {
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public BookingDto addBooking(@RequestBody BookingCreationDto bookingCreationDto,
@@ -36,6 +49,13 @@ public class BookingController {
         return bookingService.renewalBooking(bookingId, userId, approved);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> renewalBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          @RequestBody List<BookingDecisionDto> decisions) {
+        log.info(LogMessages.BOOKING_BATCH_RENEWAL_REQUEST.toString(), userId, decisions.size());
+        return bookingService.renewalBookings(userId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
                                      @PathVariable Long bookingId) {
@@ -44,20 +64,60 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllUserBookings(@RequestHeader("X-Sharer-User-Id") Long bookerId,
-                                               @RequestParam(defaultValue = "ALL") BookingState state,
-                                               @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                               @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public ResponseEntity<List<BookingDto>> getAllUserBookings(@RequestHeader("X-Sharer-User-Id") Long bookerId,
+                                                               @RequestParam(defaultValue = "ALL") BookingState state,
+                                                               @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                               @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                               @RequestParam(name = "cursor", required = false) String cursor) {
         log.info(LogMessages.GET_BOOKING_REQUEST_STATUS.toString(), bookerId, state);
-        return bookingService.getAllUserBookings(bookerId, state, from, size);
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getAllUserBookings(bookerId, state, from, size));
+        }
+        return bookingService.getAllUserBookingsByCursor(bookerId, state, cursor, size).toResponseEntity();
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getOwnerAllItemBookings(@RequestHeader("X-Sharer-User-Id") Long ownerId,
-                                                    @RequestParam(defaultValue = "ALL") BookingState state,
-                                                    @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                    @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public ResponseEntity<List<BookingDto>> getOwnerAllItemBookings(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                                    @RequestParam(defaultValue = "ALL") BookingState state,
+                                                                    @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                    @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                                    @RequestParam(name = "cursor", required = false) String cursor) {
         log.info(LogMessages.GET_ALL_BOOKING_REQUEST_STATUS.toString(), ownerId, state);
-        return bookingService.getOwnerAllItemBookings(ownerId, state, from, size);
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getOwnerAllItemBookings(ownerId, state, from, size));
+        }
+        return bookingService.getOwnerAllItemBookingsByCursor(ownerId, state, cursor, size).toResponseEntity();
+    }
+
+    /**
+     * История бронирований владельца в формате JSON Lines, строки пишутся в ответ по мере чтения из БД.
+     */
+    @GetMapping("/owner/export")
+    public void exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                    HttpServletRequest request,
+                                    HttpServletResponse response) throws IOException {
+        log.info(LogMessages.EXPORT_OWNER_BOOKINGS_REQUEST.toString(), ownerId);
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        bookingService.exportOwnerBookings(ownerId, booking -> {
+            try {
+                ServletOutputStream out = startJsonLines(response);
+                out.write(objectMapper.writeValueAsBytes(booking));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        startJsonLines(response).flush();
+    }
+
+    /**
+     * Тип ответа выставляется перед первой строкой, чтобы ошибка проверки владельца ушла обычным JSON.
+     */
+    private static ServletOutputStream startJsonLines(HttpServletResponse response) throws IOException {
+        if (response.getContentType() == null) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        }
+        return response.getOutputStream();
     }
-}
\ No newline at end of file
+}
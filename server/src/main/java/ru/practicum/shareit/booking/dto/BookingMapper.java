@@ -15,6 +15,7 @@ public class BookingMapper {
                 .id(bookingCreationDto.getId())
                 .item(item)
                 .booker(user)
+                .ownerId(item.getOwner().getId())
                 .start(bookingCreationDto.getStart())
                 .end(bookingCreationDto.getEnd())
                 .status(bookingCreationDto.getStatus())
@@ -33,23 +34,13 @@ public class BookingMapper {
                 .build();
     }
 
-    public static BookingShortDto toBookingShortDto(Booking booking) {
+    public static BookingShortDto toBookingShortDto(ItemBookingView booking) {
         if (booking == null) return null;
         return BookingShortDto.builder()
                 .id(booking.getId())
-                .bookerId(booking.getBooker().getId())
+                .bookerId(booking.getBookerId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .build();
     }
-
-    public static BookingShortDto toBookingShortDto(BookingDto booking) {
-        if (booking == null) return null;
-        return BookingShortDto.builder()
-                .id(booking.getId())
-                .bookerId(booking.getBooker().getId())
-                .start(booking.getStart())
-                .end(booking.getEnd())
-                .build();
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция последнего или следующего подтверждённого бронирования вещи.
+ */
+public interface ItemBookingView {
+    String LAST = "LAST";
+    String NEXT = "NEXT";
+
+    String getKind();
+
+    Long getId();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.messages.LogMessages;
+import ru.practicum.shareit.user.service.UserRemovedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Индекс интервалов активных (WAITING и APPROVED) бронирований по вещам.
+ * Загружается из таблицы bookings при старте и обновляется после фиксации транзакции,
+ * при откате изменения интервалы вещи перечитываются из базы при следующем обращении.
+ * При удалении пользователя так же перечитываются только вещи, затронутые его бронированиями.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    public static final List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+    private final Map<Long, Long> staleItems = new ConcurrentHashMap<>();
+    private final AtomicLong staleStamps = new AtomicLong();
+    private volatile boolean loaded;
+
+    /**
+     * Изменения, зафиксированные во время загрузки, не отбрасываются: их вещи помечаются устаревшими
+     * и перечитываются из базы при первом обращении.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        loaded = false;
+        Map<Long, List<BookingInterval>> intervals = bookingRepository.findAllIntervalsByStatusIn(BLOCKING_STATUSES)
+                .stream()
+                .collect(Collectors.groupingBy(BookingInterval::getItemId));
+        timelines.clear();
+        intervals.forEach((itemId, itemIntervals) -> timelines.put(itemId, ItemTimeline.of(itemIntervals)));
+        loaded = true;
+        log.info(LogMessages.BOOKING_INDEX_LOADED.toString(), timelines.size());
+    }
+
+    @EventListener
+    public void onUserRemoved(UserRemovedEvent event) {
+        event.getItemIds().forEach(this::invalidate);
+        event.getRequestItemIds().forEach(this::invalidate);
+    }
+
+    public boolean hasOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return timeline(itemId).overlaps(toEpochMilli(start), toEpochMilli(end));
+    }
+
+    /**
+     * Занятые слоты вещи: бит i соответствует [from + slot * i, from + slot * (i + 1)).
+     */
+    public BitSet busySlots(Long itemId, LocalDateTime from, Duration slot, int slots) {
+        return timeline(itemId).busySlots(toEpochMilli(from), slot.toMillis(), slots);
+    }
+
+    public void register(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        long bookingId = booking.getId();
+        long start = toEpochMilli(booking.getStart());
+        long end = toEpochMilli(booking.getEnd());
+        afterCommit(itemId, () -> update(itemId, timeline -> timeline.with(bookingId, start, end)));
+    }
+
+    public void release(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        long bookingId = booking.getId();
+        afterCommit(itemId, () -> update(itemId, timeline -> timeline.without(bookingId)));
+    }
+
+    public void invalidate(Long itemId) {
+        staleItems.put(itemId, staleStamps.incrementAndGet());
+        timelines.remove(itemId);
+    }
+
+    static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Устаревшая вещь перечитывается из базы. Отметка снимается, только если за время чтения
+     * вещь не помечалась заново, иначе прочитанные интервалы могли не увидеть новое изменение.
+     */
+    private ItemTimeline timeline(Long itemId) {
+        Long stamp = staleItems.get(itemId);
+        if (loaded && stamp == null) {
+            return timelines.getOrDefault(itemId, ItemTimeline.EMPTY);
+        }
+        ItemTimeline timeline = ItemTimeline.of(
+                bookingRepository.findIntervalsByItemIdAndStatusIn(itemId, BLOCKING_STATUSES));
+        if (loaded && stamp != null) {
+            timelines.put(itemId, timeline);
+            staleItems.remove(itemId, stamp);
+        }
+        return timeline;
+    }
+
+    private void update(Long itemId, UnaryOperator<ItemTimeline> change) {
+        if (!loaded) {
+            invalidate(itemId);
+            return;
+        }
+        if (staleItems.computeIfPresent(itemId, (id, stamp) -> staleStamps.incrementAndGet()) != null) {
+            return;
+        }
+        timelines.compute(itemId, (id, timeline) -> {
+            ItemTimeline updated = change.apply(timeline == null ? ItemTimeline.EMPTY : timeline);
+            return updated.size() == 0 ? null : updated;
+        });
+    }
+
+    private void afterCommit(Long itemId, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return ItemLockManager.UNLOCK_ORDER - 1;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    action.run();
+                } else {
+                    invalidate(itemId);
+                }
+            }
+        });
+    }
+}
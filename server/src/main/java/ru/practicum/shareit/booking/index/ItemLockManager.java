@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking.index;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Полосатые блокировки по вещам: идентификатор вещи отображается на одну из фиксированного числа
+ * ReentrantLock. Создания бронирований одной вещи выполняются по очереди, разных вещей - параллельно,
+ * пока вещи не попали в одну полосу.
+ */
+@Component
+public class ItemLockManager {
+    /**
+     * Порядок синхронизации, снимающей блокировку: последней, после обновления индекса интервалов.
+     */
+    public static final int UNLOCK_ORDER = Ordered.LOWEST_PRECEDENCE;
+    private final ReentrantLock[] stripes;
+
+    public ItemLockManager(@Value("${shareit.booking.lock-stripes:1024}") int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Число полос блокировок должно быть положительным: " + stripes);
+        }
+        int size = Integer.highestOneBit(stripes);
+        this.stripes = new ReentrantLock[size < stripes ? size << 1 : size];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Блокирует вещь до завершения текущей транзакции: индекс интервалов меняется только после фиксации,
+     * поэтому снимать блокировку раньше нельзя.
+     */
+    public void lockUntilTransactionEnds(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи " + itemId + " требует активной транзакции");
+        }
+        ReentrantLock lock = stripe(itemId);
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return UNLOCK_ORDER;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    ReentrantLock stripe(Long itemId) {
+        int hash = Long.hashCode(itemId);
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+}
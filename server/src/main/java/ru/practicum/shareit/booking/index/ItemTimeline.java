@@ -0,0 +1,148 @@
+package ru.practicum.shareit.booking.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Неизменяемый набор интервалов бронирования одной вещи, отсортированный по началу.
+ * Интервалы полуоткрытые [start, end) в миллисекундах эпохи. Массив maxEnds хранит
+ * максимум концов на префиксе, поэтому проверка пересечения выполняется за O(log n).
+ */
+final class ItemTimeline {
+    static final ItemTimeline EMPTY = new ItemTimeline(new long[0], new long[0], new long[0]);
+
+    private final long[] ids;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+
+    private ItemTimeline(long[] ids, long[] starts, long[] ends) {
+        this.ids = ids;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new long[ends.length];
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+    static ItemTimeline of(Collection<BookingInterval> intervals) {
+        BookingInterval[] sorted = intervals.toArray(new BookingInterval[0]);
+        Arrays.sort(sorted, Comparator.comparing(BookingInterval::getStart));
+        long[] ids = new long[sorted.length];
+        long[] starts = new long[sorted.length];
+        long[] ends = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            ids[i] = sorted[i].getId();
+            starts[i] = BookingIntervalIndex.toEpochMilli(sorted[i].getStart());
+            ends[i] = BookingIntervalIndex.toEpochMilli(sorted[i].getEnd());
+        }
+        return new ItemTimeline(ids, starts, ends);
+    }
+
+    boolean overlaps(long start, long end) {
+        int count = countStartingBefore(end);
+        return count > 0 && maxEnds[count - 1] > start;
+    }
+
+    /**
+     * Отмечает занятые слоты окна [from, from + slotLength * slots): слот занят, если его пересекает
+     * хотя бы один интервал. Просматриваются только интервалы, начавшиеся до конца окна,
+     * начиная с первого, у которого максимум концов на префиксе позже from.
+     */
+    BitSet busySlots(long from, long slotLength, int slots) {
+        long to = from + slotLength * slots;
+        BitSet busy = new BitSet(slots);
+        int count = countStartingBefore(to);
+        for (int i = countEndedBy(from); i < count; i++) {
+            if (ends[i] > from) {
+                int first = (int) ((Math.max(starts[i], from) - from) / slotLength);
+                int last = (int) ((Math.min(ends[i], to) - from + slotLength - 1) / slotLength);
+                busy.set(first, last);
+            }
+        }
+        return busy;
+    }
+
+    ItemTimeline with(long id, long start, long end) {
+        ItemTimeline base = without(id);
+        int position = base.countStartingBefore(start + 1);
+        int size = base.size();
+        long[] newIds = new long[size + 1];
+        long[] newStarts = new long[size + 1];
+        long[] newEnds = new long[size + 1];
+        System.arraycopy(base.ids, 0, newIds, 0, position);
+        System.arraycopy(base.starts, 0, newStarts, 0, position);
+        System.arraycopy(base.ends, 0, newEnds, 0, position);
+        newIds[position] = id;
+        newStarts[position] = start;
+        newEnds[position] = end;
+        System.arraycopy(base.ids, position, newIds, position + 1, size - position);
+        System.arraycopy(base.starts, position, newStarts, position + 1, size - position);
+        System.arraycopy(base.ends, position, newEnds, position + 1, size - position);
+        return new ItemTimeline(newIds, newStarts, newEnds);
+    }
+
+    ItemTimeline without(long id) {
+        int index = indexOf(id);
+        if (index < 0) {
+            return this;
+        }
+        int size = size();
+        long[] newIds = new long[size - 1];
+        long[] newStarts = new long[size - 1];
+        long[] newEnds = new long[size - 1];
+        System.arraycopy(ids, 0, newIds, 0, index);
+        System.arraycopy(starts, 0, newStarts, 0, index);
+        System.arraycopy(ends, 0, newEnds, 0, index);
+        System.arraycopy(ids, index + 1, newIds, index, size - index - 1);
+        System.arraycopy(starts, index + 1, newStarts, index, size - index - 1);
+        System.arraycopy(ends, index + 1, newEnds, index, size - index - 1);
+        return new ItemTimeline(newIds, newStarts, newEnds);
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    private int indexOf(long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int countEndedBy(long time) {
+        int low = 0;
+        int high = maxEnds.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (maxEnds[middle] <= time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int countStartingBefore(long time) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
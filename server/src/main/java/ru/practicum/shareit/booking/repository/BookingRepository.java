@@ -1,18 +1,27 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.index.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.messages.LogMessages;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
@@ -21,43 +30,174 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                 LogMessages.NOT_FOUND.toString() + bookingId));
     }
 
-    Page<Booking> findAllByBookerId(Long bookerId, Pageable pageable);
-
+    /**
+     * Находки по бронирующему записаны на JPQL: производные запросы по booker.id соединяют users
+     * внешним соединением и фильтруют по его ключу, и индексы bookings по booker_id не используются.
+     */
     @Query("SELECT b FROM Booking AS b " +
-            "WHERE b.item.owner.id = :ownerId " +
-            "AND b.status = :status")
-    List<Booking> findAllByOwnerAndStatus(Long ownerId, BookingStatus status, Sort sort);
+            "WHERE b.booker.id = :bookerId")
+    Slice<Booking> findAllByBookerId(Long bookerId, Pageable pageable);
+
+    /**
+     * Переводит бронирования в статус status, только если их статус всё ещё expected.
+     * Возвращает число изменённых строк: меньше ids.size(), если статус успел изменить параллельный запрос.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking AS b " +
+            "SET b.status = :status " +
+            "WHERE b.id IN :ids " +
+            "AND b.status = :expected")
+    int compareAndSetStatus(Collection<Long> ids, BookingStatus expected, BookingStatus status);
 
     @Query("SELECT b FROM Booking AS b " +
             "WHERE b.booker.id = :bookerId " +
             "AND :now BETWEEN b.start AND b.end")
-    Page<Booking> findByBookerIdAndNowBetweenStartAndEnd(Long bookerId, LocalDateTime now, Pageable pageable);
+    Slice<Booking> findByBookerIdAndNowBetweenStartAndEnd(Long bookerId, LocalDateTime now, Pageable pageable);
 
-    Page<Booking> findByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime now, Pageable pageable);
+    @Query("SELECT b FROM Booking AS b " +
+            "WHERE b.booker.id = :bookerId " +
+            "AND b.start > :now")
+    Slice<Booking> findByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime now, Pageable pageable);
 
-    Page<Booking> findByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime now, Pageable pageable);
+    @Query("SELECT b FROM Booking AS b " +
+            "WHERE b.booker.id = :bookerId " +
+            "AND b.end < :now")
+    Slice<Booking> findByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime now, Pageable pageable);
 
-    Page<Booking> findByBookerIdAndStatusIs(Long bookerId, BookingStatus status, Pageable pageable);
+    @Query("SELECT b FROM Booking AS b " +
+            "WHERE b.booker.id = :bookerId " +
+            "AND b.status = :status")
+    Slice<Booking> findByBookerIdAndStatusIs(Long bookerId, BookingStatus status, Pageable pageable);
 
-    Page<Booking> findAllByItemOwnerId(Long userId, Pageable pageable);
+    Slice<Booking> findAllByOwnerId(Long userId, Pageable pageable);
 
     @Query("SELECT b FROM Booking AS b " +
-            "WHERE b.item.owner.id = :userId " +
+            "WHERE b.ownerId = :userId " +
             "AND :now BETWEEN b.start AND b.end")
-    Page<Booking> findAllCurrentOwnerBookings(Long userId, LocalDateTime now, Pageable pageable);
+    Slice<Booking> findAllCurrentOwnerBookings(Long userId, LocalDateTime now, Pageable pageable);
 
-    Page<Booking> findAllByItemOwnerIdAndStartIsAfter(Long userId, LocalDateTime now, Pageable pageable);
+    Slice<Booking> findAllByOwnerIdAndStartIsAfter(Long userId, LocalDateTime now, Pageable pageable);
 
-    Page<Booking> findAllByItemOwnerIdAndEndIsBefore(Long userId, LocalDateTime now, Pageable pageable);
+    Slice<Booking> findAllByOwnerIdAndEndIsBefore(Long userId, LocalDateTime now, Pageable pageable);
 
-    Page<Booking> findAllByItemOwnerIdAndStatusIs(Long userId, BookingStatus status, Pageable pageable);
+    Slice<Booking> findAllByOwnerIdAndStatusIs(Long userId, BookingStatus status, Pageable pageable);
 
-    List<Booking> findAllByItemIdAndBookerIdAndStatusIsAndEndBefore(Long itemId, Long bookerId,
-                                                                    BookingStatus bookingStatus, LocalDateTime now);
+    int EXPORT_FETCH_SIZE = 500;
+
+    /**
+     * Вся история бронирований владельца для потоковой выгрузки: строки читаются курсором JDBC порциями по
+     * EXPORT_FETCH_SIZE, сущности только для чтения и не попадают в кэш второго уровня.
+     * Поток нужно закрыть и дочитать внутри транзакции.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT b FROM Booking AS b " +
+            "JOIN FETCH b.item " +
+            "JOIN FETCH b.booker " +
+            "WHERE b.ownerId = :ownerId " +
+            "ORDER BY b.start DESC, b.id DESC")
+    Stream<Booking> streamAllByOwnerId(Long ownerId);
+
+    String SEEK_BY_START_DESC = "AND (b.start < :start OR (b.start = :start AND b.id < :id)) " +
+            "ORDER BY b.start DESC, b.id DESC";
+
+    @Query("SELECT b FROM Booking AS b " +
+            "WHERE b.booker.id = :bookerId " + SEEK_BY_START_DESC)
+    List<Booking> findBookerBookingsAfter(Long bookerId, LocalDateTime start, Long id, Pageable pageable);
 
-    Optional<Booking> findFirstByItemIdAndStartBeforeAndStatus(Long itemId, LocalDateTime now, BookingStatus status, Sort sort);
+    @Query("SELECT b FROM Booking AS b " +
+            "WHERE b.booker.id = :bookerId " +
+            "AND :now BETWEEN b.start AND b.end " + SEEK_BY_START_DESC)
+    List<Booking> findCurrentBookerBookingsAfter(Long bookerId, LocalDateTime now,
+                                                 LocalDateTime start, Long id, Pageable pageable);
 
-    Optional<Booking> findFirstByItemIdAndStartAfterAndStatus(Long itemId, LocalDateTime now, BookingStatus status, Sort sort);
+    @Query("SELECT b FROM Booking AS b " +
+            "WHERE b.booker.id = :bookerId " +
+            "AND b.start > :now " + SEEK_BY_START_DESC)
+    List<Booking> findFutureBookerBookingsAfter(Long bookerId, LocalDateTime now,
+                                                LocalDateTime start, Long id, Pageable pageable);
+
+    @Query("SELECT b FROM Booking AS b " +
+            "WHERE b.booker.id = :bookerId " +
+            "AND b.end < :now " + SEEK_BY_START_DESC)
+    List<Booking> findPastBookerBookingsAfter(Long bookerId, LocalDateTime now,
+                                              LocalDateTime start, Long id, Pageable pageable);
+
+    @Query("SELECT b FROM Booking AS b " +
+            "WHERE b.booker.id = :bookerId " +
+            "AND b.status = :status " + SEEK_BY_START_DESC)
+    List<Booking> findBookerBookingsByStatusAfter(Long bookerId, BookingStatus status,
+                                                  LocalDateTime start, Long id, Pageable pageable);
+
+    @Query("SELECT b FROM Booking AS b " +
+            "WHERE b.ownerId = :ownerId " + SEEK_BY_START_DESC)
+    List<Booking> findOwnerBookingsAfter(Long ownerId, LocalDateTime start, Long id, Pageable pageable);
+
+    @Query("SELECT b FROM Booking AS b " +
+            "WHERE b.ownerId = :ownerId " +
+            "AND :now BETWEEN b.start AND b.end " + SEEK_BY_START_DESC)
+    List<Booking> findCurrentOwnerBookingsAfter(Long ownerId, LocalDateTime now,
+                                                LocalDateTime start, Long id, Pageable pageable);
+
+    @Query("SELECT b FROM Booking AS b " +
+            "WHERE b.ownerId = :ownerId " +
+            "AND b.start > :now " + SEEK_BY_START_DESC)
+    List<Booking> findFutureOwnerBookingsAfter(Long ownerId, LocalDateTime now,
+                                               LocalDateTime start, Long id, Pageable pageable);
+
+    @Query("SELECT b FROM Booking AS b " +
+            "WHERE b.ownerId = :ownerId " +
+            "AND b.end < :now " + SEEK_BY_START_DESC)
+    List<Booking> findPastOwnerBookingsAfter(Long ownerId, LocalDateTime now,
+                                             LocalDateTime start, Long id, Pageable pageable);
+
+    @Query("SELECT b FROM Booking AS b " +
+            "WHERE b.ownerId = :ownerId " +
+            "AND b.status = :status " + SEEK_BY_START_DESC)
+    List<Booking> findOwnerBookingsByStatusAfter(Long ownerId, BookingStatus status,
+                                                 LocalDateTime start, Long id, Pageable pageable);
+
+    @Query("SELECT b FROM Booking AS b " +
+            "WHERE b.item.id = :itemId " +
+            "AND b.booker.id = :bookerId " +
+            "AND b.status = :bookingStatus " +
+            "AND b.end < :now")
+    List<Booking> findAllByItemIdAndBookerIdAndStatusIsAndEndBefore(Long itemId, Long bookerId,
+                                                                    BookingStatus bookingStatus, LocalDateTime now);
 
-    List<Booking> findByItemIdAndStatus(Long itemId, BookingStatus status);
-}
\ No newline at end of file
+    @Query("SELECT DISTINCT b.item.id FROM Booking AS b " +
+            "WHERE b.booker.id = :userId " +
+            "OR b.ownerId = :userId")
+    List<Long> findItemIdsByBookerIdOrOwnerId(Long userId);
+
+    @Query("SELECT new ru.practicum.shareit.booking.index.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "FROM Booking AS b " +
+            "WHERE b.status IN :statuses")
+    List<BookingInterval> findAllIntervalsByStatusIn(Collection<BookingStatus> statuses);
+
+    @Query("SELECT new ru.practicum.shareit.booking.index.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "FROM Booking AS b " +
+            "WHERE b.item.id = :itemId " +
+            "AND b.status IN :statuses")
+    List<BookingInterval> findIntervalsByItemIdAndStatusIn(Long itemId, Collection<BookingStatus> statuses);
+
+    @Query(value = "SELECT t.kind AS \"kind\", t.id AS \"id\", t.item_id AS \"itemId\", " +
+            "t.booker_id AS \"bookerId\", t.start_date AS \"start\", t.end_date AS \"end\" " +
+            "FROM (" +
+            "SELECT 'LAST' AS kind, b.id, b.item_id, b.booker_id, b.start_date, b.end_date, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date DESC, b.id DESC) AS rn " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.start_date < :now " +
+            "UNION ALL " +
+            "SELECT 'NEXT' AS kind, b.id, b.item_id, b.booker_id, b.start_date, b.end_date, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date ASC, b.id ASC) AS rn " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.start_date > :now" +
+            ") AS t " +
+            "WHERE t.rn = 1",
+            nativeQuery = true)
+    List<ItemBookingView> findLastAndNextApprovedByItemIds(Collection<Long> itemIds, LocalDateTime now);
+}
@@ -2,18 +2,30 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.utils.CursorPage;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto addBooking(BookingCreationDto bookingCreationDto, Long userId);
 
     BookingDto renewalBooking(Long bookingId, Long userId, Boolean approved);
 
+    List<BookingDecisionResultDto> renewalBookings(Long userId, List<BookingDecisionDto> decisions);
+
     BookingDto getBookingById(Long bookingId, Long userId);
 
     List<BookingDto> getAllUserBookings(Long bookerId, BookingState state, Integer from, Integer size);
 
+    CursorPage<BookingDto> getAllUserBookingsByCursor(Long bookerId, BookingState state, String cursor, Integer size);
+
     List<BookingDto> getOwnerAllItemBookings(Long userId, BookingState state, Integer from, Integer size);
+
+    CursorPage<BookingDto> getOwnerAllItemBookingsByCursor(Long userId, BookingState state, String cursor, Integer size);
+
+    void exportOwnerBookings(Long userId, Consumer<BookingDto> consumer);
 }
\ No newline at end of file
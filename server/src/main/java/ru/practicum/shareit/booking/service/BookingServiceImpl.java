@@ -5,13 +5,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.index.ItemLockManager;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.BookingConflictException;
 import ru.practicum.shareit.exceptions.BookingException;
 import ru.practicum.shareit.exceptions.InvalidIdException;
 import ru.practicum.shareit.exceptions.NotFoundException;
@@ -19,15 +25,26 @@ import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.messages.LogMessages;
+import ru.practicum.shareit.user.index.UserIdIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.Cursor;
+import ru.practicum.shareit.utils.CursorPage;
 import ru.practicum.shareit.utils.PageSetup;
 
-import javax.transaction.Transactional;
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -36,7 +53,11 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
-    private static final Sort SORT = Sort.sort(Booking.class).by(Booking::getStart).descending();
+    private final UserIdIndex userIdIndex;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemLockManager itemLockManager;
+    private final EntityManager entityManager;
+    private static final Sort SORT = Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id"));
 
     @Override
     @Transactional
@@ -52,7 +73,13 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException(LogMessages.BOOKING_BY_OWNER.toString());
         }
         bookingDateCheck(bookingCreationDto);
+        itemLockManager.lockUntilTransactionEnds(item.getId());
+        if (bookingIntervalIndex.hasOverlap(item.getId(), bookingCreationDto.getStart(), bookingCreationDto.getEnd())) {
+            log.warn(LogMessages.BOOKING_OVERLAP.toString(), item.getId());
+            throw new BookingException(LogMessages.BOOKING_OVERLAP.toString());
+        }
         Booking booking = bookingRepository.save(BookingMapper.toBooking(bookingCreationDto, item, user));
+        bookingIntervalIndex.register(booking);
         return BookingMapper.toBookingDto(booking);
     }
 
@@ -70,12 +97,74 @@ public class BookingServiceImpl implements BookingService {
             log.warn(LogMessages.BOOKING_APPROVED.toString());
             throw new BookingException(LogMessages.BOOKING_APPROVED.toString());
         }
-        if (approved && booking.getStatus().equals(BookingStatus.WAITING)) {
-            booking.setStatus(BookingStatus.APPROVED);
-        } else {
-            booking.setStatus(BookingStatus.REJECTED);
+        BookingStatus status = approved && booking.getStatus().equals(BookingStatus.WAITING)
+                ? BookingStatus.APPROVED
+                : BookingStatus.REJECTED;
+        BookingDto bookingDto = BookingMapper.toBookingDto(booking);
+        if (bookingRepository.compareAndSetStatus(List.of(bookingId), booking.getStatus(), status) == 0) {
+            log.warn(LogMessages.BOOKING_CONFLICT.toString() + bookingId);
+            throw new BookingConflictException(LogMessages.BOOKING_CONFLICT.toString() + bookingId);
+        }
+        if (status == BookingStatus.REJECTED) {
+            bookingIntervalIndex.release(booking);
+        }
+        bookingDto.setStatus(status);
+        return bookingDto;
+    }
+
+    /**
+     * Бронирования пакета загружаются одним запросом, владение проверяется по owner_id бронирования.
+     * Статусы меняются одним условным UPDATE на каждую пару «прочитанный статус - новый статус».
+     * Переходы те же, что в renewalBooking; решения с ошибкой, в том числе пустые строки пакета,
+     * пропускаются и возвращаются с причиной.
+     * Если параллельный запрос успел изменить статус хотя бы одного бронирования, пакет откатывается целиком.
+     */
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> renewalBookings(Long userId, List<BookingDecisionDto> decisions) {
+        userIdIndex.validateUser(userId);
+        Set<Long> bookingIds = decisions.stream()
+                .filter(Objects::nonNull)
+                .map(BookingDecisionDto::getBookingId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Booking> bookings = bookingRepository.findAllById(bookingIds)
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Map<BookingStatus, Map<BookingStatus, List<Long>>> transitions = new EnumMap<>(BookingStatus.class);
+        Set<Long> decided = new HashSet<>();
+        List<BookingDecisionResultDto> results = new ArrayList<>(decisions.size());
+        for (BookingDecisionDto decision : decisions) {
+            if (decision == null) {
+                results.add(BookingDecisionResultDto.failed(null, LogMessages.EMPTY_ITEM.toString()));
+                continue;
+            }
+            Long bookingId = decision.getBookingId();
+            Booking booking = bookings.get(bookingId);
+            String error = validateDecision(decision, booking, userId, decided);
+            if (error != null) {
+                results.add(BookingDecisionResultDto.failed(bookingId, error));
+                continue;
+            }
+            decided.add(bookingId);
+            BookingStatus status = decision.getApproved() && booking.getStatus().equals(BookingStatus.WAITING)
+                    ? BookingStatus.APPROVED
+                    : BookingStatus.REJECTED;
+            if (status == BookingStatus.REJECTED) {
+                bookingIntervalIndex.release(booking);
+            }
+            transitions.computeIfAbsent(booking.getStatus(), key -> new EnumMap<>(BookingStatus.class))
+                    .computeIfAbsent(status, key -> new ArrayList<>())
+                    .add(bookingId);
+            results.add(BookingDecisionResultDto.of(bookingId, status));
         }
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        transitions.forEach((expected, targets) -> targets.forEach((status, ids) -> {
+            if (bookingRepository.compareAndSetStatus(ids, expected, status) != ids.size()) {
+                log.warn(LogMessages.BOOKING_CONFLICT.toString() + ids);
+                throw new BookingConflictException(LogMessages.BOOKING_CONFLICT.toString() + ids);
+            }
+        }));
+        return results;
     }
 
     @Override
@@ -93,74 +182,190 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingDto> getAllUserBookings(Long bookerId, BookingState state, Integer from, Integer size) {
-        userRepository.validateUser(bookerId);
+        userIdIndex.validateUser(bookerId);
+        return toBookingDtos(findUserBookings(bookerId, state, LocalDateTime.now(), new PageSetup(from, size, SORT)));
+    }
+
+    @Override
+    public CursorPage<BookingDto> getAllUserBookingsByCursor(Long bookerId, BookingState state, String cursor,
+                                                             Integer size) {
+        userIdIndex.validateUser(bookerId);
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookingDtoList;
-        PageRequest pageable = new PageSetup(from, size, SORT);
+        Cursor after = Cursor.decode(cursor);
+        if (after == null) {
+            return toBookingPage(findUserBookings(bookerId, state, now, new PageSetup(0, size + 1, SORT)), size);
+        }
+        LocalDateTime start = after.getTimestamp();
+        Long id = after.getId();
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Booking> bookings;
         switch (state) {
             case ALL:
-                bookingDtoList = bookingRepository.findAllByBookerId(bookerId, pageable).getContent();
+                bookings = bookingRepository.findBookerBookingsAfter(bookerId, start, id, limit);
                 break;
             case CURRENT:
-                bookingDtoList = bookingRepository.findByBookerIdAndNowBetweenStartAndEnd(bookerId, now, pageable).getContent();
+                bookings = bookingRepository.findCurrentBookerBookingsAfter(bookerId, now, start, id, limit);
                 break;
             case FUTURE:
-                bookingDtoList = bookingRepository.findByBookerIdAndStartIsAfter(bookerId, now, pageable).getContent();
+                bookings = bookingRepository.findFutureBookerBookingsAfter(bookerId, now, start, id, limit);
                 break;
             case PAST:
-                bookingDtoList = bookingRepository.findByBookerIdAndEndIsBefore(bookerId, now, pageable).getContent();
+                bookings = bookingRepository.findPastBookerBookingsAfter(bookerId, now, start, id, limit);
                 break;
             case WAITING:
-                bookingDtoList = bookingRepository.findByBookerIdAndStatusIs(bookerId, BookingStatus.WAITING, pageable).getContent();
+                bookings = bookingRepository.findBookerBookingsByStatusAfter(bookerId, BookingStatus.WAITING,
+                        start, id, limit);
                 break;
             case REJECTED:
-                bookingDtoList = bookingRepository.findByBookerIdAndStatusIs(bookerId, BookingStatus.REJECTED, pageable).getContent();
+                bookings = bookingRepository.findBookerBookingsByStatusAfter(bookerId, BookingStatus.REJECTED,
+                        start, id, limit);
                 break;
             default:
                 log.warn(LogMessages.UNSUPPORTED_STATUS.toString(), state);
                 throw new BookingException(LogMessages.UNSUPPORTED_STATUS.toString() + state);
         }
-        return bookingDtoList.stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+        return toBookingPage(bookings, size);
     }
 
     @Override
     public List<BookingDto> getOwnerAllItemBookings(Long userId, BookingState state, Integer from, Integer size) {
-        userRepository.validateUser(userId);
+        userIdIndex.validateUser(userId);
+        return toBookingDtos(findOwnerBookings(userId, state, LocalDateTime.now(), new PageSetup(from, size, SORT)));
+    }
+
+    /**
+     * Контекст персистентности очищается после каждой порции строк,
+     * поэтому расход памяти не зависит от длины истории.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOwnerBookings(Long userId, Consumer<BookingDto> consumer) {
+        userIdIndex.validateUser(userId);
+        try (Stream<Booking> bookings = bookingRepository.streamAllByOwnerId(userId)) {
+            int exported = 0;
+            for (Booking booking : (Iterable<Booking>) bookings::iterator) {
+                consumer.accept(BookingMapper.toBookingDto(booking));
+                if (++exported % BookingRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    @Override
+    public CursorPage<BookingDto> getOwnerAllItemBookingsByCursor(Long userId, BookingState state, String cursor,
+                                                                  Integer size) {
+        userIdIndex.validateUser(userId);
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookingDtoList;
-        PageRequest pageable = new PageSetup(from, size, SORT);
+        Cursor after = Cursor.decode(cursor);
+        if (after == null) {
+            return toBookingPage(findOwnerBookings(userId, state, now, new PageSetup(0, size + 1, SORT)), size);
+        }
+        LocalDateTime start = after.getTimestamp();
+        Long id = after.getId();
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Booking> bookings;
         switch (state) {
             case ALL:
-                bookingDtoList = bookingRepository.findAllByItemOwnerId(userId, pageable).getContent();
+                bookings = bookingRepository.findOwnerBookingsAfter(userId, start, id, limit);
                 break;
             case CURRENT:
-                bookingDtoList = bookingRepository.findAllCurrentOwnerBookings(userId, now, pageable).getContent();
+                bookings = bookingRepository.findCurrentOwnerBookingsAfter(userId, now, start, id, limit);
                 break;
             case FUTURE:
-                bookingDtoList = bookingRepository.findAllByItemOwnerIdAndStartIsAfter(userId, now, pageable).getContent();
+                bookings = bookingRepository.findFutureOwnerBookingsAfter(userId, now, start, id, limit);
                 break;
             case PAST:
-                bookingDtoList = bookingRepository.findAllByItemOwnerIdAndEndIsBefore(userId, now, pageable).getContent();
+                bookings = bookingRepository.findPastOwnerBookingsAfter(userId, now, start, id, limit);
                 break;
             case WAITING:
-                bookingDtoList = bookingRepository.findAllByItemOwnerIdAndStatusIs(userId,
-                        BookingStatus.WAITING, pageable).getContent();
+                bookings = bookingRepository.findOwnerBookingsByStatusAfter(userId, BookingStatus.WAITING,
+                        start, id, limit);
                 break;
             case REJECTED:
-                bookingDtoList = bookingRepository.findAllByItemOwnerIdAndStatusIs(userId,
-                        BookingStatus.REJECTED, pageable).getContent();
+                bookings = bookingRepository.findOwnerBookingsByStatusAfter(userId, BookingStatus.REJECTED,
+                        start, id, limit);
                 break;
             default:
                 log.warn(LogMessages.UNSUPPORTED_STATUS.toString(), state);
                 throw new BookingException(LogMessages.UNSUPPORTED_STATUS.toString() + state);
         }
-        return bookingDtoList.stream()
+        return toBookingPage(bookings, size);
+    }
+
+    private List<Booking> findUserBookings(Long bookerId, BookingState state, LocalDateTime now, PageRequest pageable) {
+        switch (state) {
+            case ALL:
+                return bookingRepository.findAllByBookerId(bookerId, pageable).getContent();
+            case CURRENT:
+                return bookingRepository.findByBookerIdAndNowBetweenStartAndEnd(bookerId, now, pageable).getContent();
+            case FUTURE:
+                return bookingRepository.findByBookerIdAndStartIsAfter(bookerId, now, pageable).getContent();
+            case PAST:
+                return bookingRepository.findByBookerIdAndEndIsBefore(bookerId, now, pageable).getContent();
+            case WAITING:
+                return bookingRepository.findByBookerIdAndStatusIs(bookerId, BookingStatus.WAITING, pageable).getContent();
+            case REJECTED:
+                return bookingRepository.findByBookerIdAndStatusIs(bookerId, BookingStatus.REJECTED, pageable).getContent();
+            default:
+                log.warn(LogMessages.UNSUPPORTED_STATUS.toString(), state);
+                throw new BookingException(LogMessages.UNSUPPORTED_STATUS.toString() + state);
+        }
+    }
+
+    private List<Booking> findOwnerBookings(Long userId, BookingState state, LocalDateTime now, PageRequest pageable) {
+        switch (state) {
+            case ALL:
+                return bookingRepository.findAllByOwnerId(userId, pageable).getContent();
+            case CURRENT:
+                return bookingRepository.findAllCurrentOwnerBookings(userId, now, pageable).getContent();
+            case FUTURE:
+                return bookingRepository.findAllByOwnerIdAndStartIsAfter(userId, now, pageable).getContent();
+            case PAST:
+                return bookingRepository.findAllByOwnerIdAndEndIsBefore(userId, now, pageable).getContent();
+            case WAITING:
+                return bookingRepository.findAllByOwnerIdAndStatusIs(userId,
+                        BookingStatus.WAITING, pageable).getContent();
+            case REJECTED:
+                return bookingRepository.findAllByOwnerIdAndStatusIs(userId,
+                        BookingStatus.REJECTED, pageable).getContent();
+            default:
+                log.warn(LogMessages.UNSUPPORTED_STATUS.toString(), state);
+                throw new BookingException(LogMessages.UNSUPPORTED_STATUS.toString() + state);
+        }
+    }
+
+    private List<BookingDto> toBookingDtos(List<Booking> bookings) {
+        return bookings.stream()
                 .map(BookingMapper::toBookingDto)
                 .collect(Collectors.toList());
     }
 
+    private CursorPage<BookingDto> toBookingPage(List<Booking> bookings, Integer size) {
+        return CursorPage.of(bookings, size, last -> Cursor.encode(last.getStart(), last.getId()),
+                this::toBookingDtos);
+    }
+
+    private static String validateDecision(BookingDecisionDto decision, Booking booking, Long userId,
+                                           Set<Long> decided) {
+        if (decision.getApproved() == null) {
+            return LogMessages.BOOKING_DECISION_NULL.toString();
+        }
+        if (booking == null) {
+            return LogMessages.NOT_FOUND.toString() + decision.getBookingId();
+        }
+        if (!booking.getOwnerId().equals(userId)) {
+            return LogMessages.BOOKING_INVALID_ID.toString();
+        }
+        if (decided.contains(booking.getId())) {
+            return LogMessages.BOOKING_DECISION_DUPLICATE.toString();
+        }
+        if (booking.getStatus().equals(BookingStatus.APPROVED)) {
+            return LogMessages.BOOKING_APPROVED.toString();
+        }
+        return null;
+    }
+
     private void bookingDateCheck(BookingCreationDto bookingCreationDto) {
         if (bookingCreationDto.getStart().isAfter(bookingCreationDto.getEnd())) {
             log.warn(LogMessages.BOOKING_START_DATE.toString(), bookingCreationDto.getStart());
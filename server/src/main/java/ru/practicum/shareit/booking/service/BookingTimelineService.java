@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.Collection;
+
+public interface BookingTimelineService {
+    void setLastAndNextBookings(Collection<ItemDto> itemDtos);
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Подставляет последнее и следующее подтверждённые бронирования
+ * для набора вещей одним запросом с единым моментом "сейчас".
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingTimelineServiceImpl implements BookingTimelineService {
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public void setLastAndNextBookings(Collection<ItemDto> itemDtos) {
+        if (itemDtos.isEmpty()) {
+            return;
+        }
+        Map<Long, ItemDto> itemsById = itemDtos.stream()
+                .collect(Collectors.toMap(ItemDto::getId, Function.identity(), (first, second) -> first));
+        List<ItemBookingView> views = bookingRepository.findLastAndNextApprovedByItemIds(itemsById.keySet(),
+                LocalDateTime.now());
+        for (ItemBookingView view : views) {
+            ItemDto itemDto = itemsById.get(view.getItemId());
+            if (ItemBookingView.LAST.equals(view.getKind())) {
+                itemDto.setLastBooking(BookingMapper.toBookingShortDto(view));
+            } else {
+                itemDto.setNextBooking(BookingMapper.toBookingShortDto(view));
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.service.UserRemovedEvent;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Вещи удалённого пользователя и вещи по его запросам удаляет каскад в базе, мимо Hibernate,
+ * поэтому регион items кэша второго уровня очищается целиком.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheEvictor {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @EventListener
+    public void onUserRemoved(UserRemovedEvent event) {
+        entityManagerFactory.getCache().evict(Item.class);
+    }
+}
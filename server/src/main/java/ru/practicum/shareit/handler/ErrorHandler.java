@@ -48,6 +48,14 @@ public class ErrorHandler {
                 "errorMessage", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleBookingConflictException(final BookingConflictException e) {
+        log.info(LogMessages.ALREADY_EXIST_ERROR_STATUS.toString());
+        return Map.of("error", "Бронирование изменено параллельным запросом",
+                "errorMessage", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public Map<String, String> handleIllegalAccessException(final IllegalAccessException e) {
@@ -2,12 +2,18 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.item.AvailabilityGranularity;
+import ru.practicum.shareit.item.dto.AvailabilityRangeDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.messages.LogMessages;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -28,6 +34,13 @@ public class ItemController {
         return itemService.addItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public ItemBatchResultDto addItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                       @RequestBody List<ItemDto> itemDtos) {
+        log.info(LogMessages.ADD_BATCH_REQUEST.toString(), userId, itemDtos.size());
+        return itemService.addItems(userId, itemDtos);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto renewalItem(@PathVariable Long itemId,
                                @RequestBody ItemDto itemDto,
@@ -43,20 +56,44 @@ public class ItemController {
         return itemService.getItemById(itemId, ownerId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public List<AvailabilityRangeDto> getAvailability(@PathVariable Long itemId,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                      @RequestParam(defaultValue = "DAY") AvailabilityGranularity granularity) {
+        log.info(LogMessages.AVAILABILITY_REQUEST.toString(), itemId, from, to, granularity);
+        return itemService.getAvailability(itemId, from, to, granularity);
+    }
+
     @GetMapping
-    public List<ItemDto> getPersonalItems(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                          @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                          @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public ResponseEntity<List<ItemDto>> getPersonalItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                          @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                          @RequestParam(name = "cursor", required = false) String cursor) {
         log.info(LogMessages.GET_ALL_REQUEST.toString());
-        return itemService.getPersonal(userId, from, size);
+        if (cursor == null) {
+            return ResponseEntity.ok(itemService.getPersonal(userId, from, size));
+        }
+        return itemService.getPersonalByCursor(userId, cursor, size).toResponseEntity();
     }
 
     @GetMapping("/search")
     public List<ItemDto> searchItem(@RequestParam String text,
                                     @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                    @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                    @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                    @RequestParam(name = "rank", defaultValue = "false") Boolean rank) {
         log.info(LogMessages.SEARCH_REQUEST.toString());
-        return itemService.search(text, from, size);
+        return itemService.search(text, from, size, rank);
+    }
+
+    @GetMapping("/search/available")
+    public List<ItemDto> searchAvailableItem(@RequestParam String text,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                             @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                             @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info(LogMessages.SEARCH_AVAILABLE_REQUEST.toString(), start, end);
+        return itemService.searchAvailable(text, start, end, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
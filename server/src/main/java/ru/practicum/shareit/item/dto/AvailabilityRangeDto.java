@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Непрерывный диапазон [start, end), целиком свободный или целиком занятый бронированиями.
+ */
+@Data
+@AllArgsConstructor
+public class AvailabilityRangeDto {
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private boolean free;
+}
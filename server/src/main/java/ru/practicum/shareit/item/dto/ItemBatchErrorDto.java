@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Строка пакета, которая не была сохранена: позиция в запросе и причина.
+ */
+@Data
+@AllArgsConstructor
+public class ItemBatchErrorDto {
+    private int index;
+    private String error;
+}
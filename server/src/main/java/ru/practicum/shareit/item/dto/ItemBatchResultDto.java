@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ItemBatchResultDto {
+    private List<ItemDto> created;
+    private List<ItemBatchErrorDto> errors;
+}
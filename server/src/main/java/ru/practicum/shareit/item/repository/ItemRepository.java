@@ -1,15 +1,24 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemDocument;
 import ru.practicum.shareit.messages.LogMessages;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    /**
+     * Размер пакета вставки вещей: совпадает с hibernate.jdbc.batch_size и шагом последовательности items_seq.
+     */
+    int INSERT_BATCH_SIZE = 50;
+
     default Item validateItem(Long itemId) {
         return findById(itemId).orElseThrow(() -> new NotFoundException(
                 LogMessages.NOT_FOUND.toString() + itemId));
@@ -19,7 +28,28 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "WHERE UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
             "OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%')) " +
             "AND i.available IS TRUE")
-    Page<Item> searchItemByText(String text, Pageable pageable);
+    Slice<Item> searchItemByText(String text, Pageable pageable);
+
+    @Query("SELECT i FROM Item AS i " +
+            "WHERE i.owner.id = :userId")
+    Slice<Item> findAllByOwnerId(Long userId, Pageable pageable);
+
+    @Query("SELECT i FROM Item AS i " +
+            "WHERE i.owner.id = :userId " +
+            "AND i.id > :id")
+    List<Item> findAllByOwnerIdAndIdGreaterThan(Long userId, Long id, Pageable pageable);
+
+    @Query("SELECT i FROM Item AS i " +
+            "WHERE i.request.id IN :requestIds")
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("SELECT i.id FROM Item AS i " +
+            "WHERE i.request.requestor.id = :userId")
+    List<Long> findIdsByRequestorId(Long userId);
 
-    Page<Item> findAllByOwnerId(Long userId, Pageable pageable);
+    @Query("SELECT new ru.practicum.shareit.item.search.ItemDocument(i.id, i.name, i.description, i.available, o.id, r.id) " +
+            "FROM Item AS i " +
+            "LEFT JOIN i.owner AS o " +
+            "LEFT JOIN i.request AS r")
+    List<ItemDocument> findAllDocuments();
 }
\ No newline at end of file
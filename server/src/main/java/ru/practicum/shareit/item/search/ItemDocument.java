@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Locale;
+
+@Getter
+public class ItemDocument {
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final Boolean available;
+    private final Long ownerId;
+    private final Long requestId;
+    private final String searchName;
+    private final String searchDescription;
+
+    public ItemDocument(Long id, String name, String description, Boolean available, Long ownerId, Long requestId) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.ownerId = ownerId;
+        this.requestId = requestId;
+        this.searchName = name == null ? "" : name.toLowerCase(Locale.ROOT);
+        this.searchDescription = description == null ? "" : description.toLowerCase(Locale.ROOT);
+    }
+
+    public static ItemDocument of(Item item) {
+        return new ItemDocument(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner() == null ? null : item.getOwner().getId(),
+                item.getRequest() == null ? null : item.getRequest().getId());
+    }
+
+    boolean matches(String query) {
+        return Boolean.TRUE.equals(available) && (searchName.contains(query) || searchDescription.contains(query));
+    }
+}
@@ -0,0 +1,310 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.messages.LogMessages;
+import ru.practicum.shareit.user.service.UserRemovedEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс триграмм по названию и описанию вещей.
+ * Кандидаты получаются пересечением списков вещей по триграммам запроса
+ * и затем проверяются на вхождение подстроки, как в прежнем поиске через LIKE.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    static final int CHUNK_SIZE = 256;
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_TOKEN_BONUS = 2;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<ScoredDocument> WORST_FIRST = Comparator
+            .comparingInt(ScoredDocument::getScore)
+            .thenComparing(scored -> scored.getDocument().getId(), Comparator.reverseOrder());
+    private final ItemRepository itemRepository;
+    private final NavigableMap<Long, ItemDocument> documents = new TreeMap<>();
+    private final Map<String, NavigableSet<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<ItemDocument> loaded = itemRepository.findAllDocuments();
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            loaded.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info(LogMessages.SEARCH_INDEX_LOADED.toString(), loaded.size());
+    }
+
+    /**
+     * Вместе с пользователем каскад удаляет его вещи и вещи других пользователей, созданные по его запросам.
+     */
+    @EventListener
+    public void onUserRemoved(UserRemovedEvent event) {
+        lock.writeLock().lock();
+        try {
+            documents.values().stream()
+                    .filter(document -> Objects.equals(document.getOwnerId(), event.getUserId()))
+                    .map(ItemDocument::getId)
+                    .collect(Collectors.toList())
+                    .forEach(this::remove);
+            event.getRequestItemIds().forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Внутри транзакции вещь попадает в индекс только после фиксации,
+     * чтобы откат не оставлял в поиске несохранённых вещей.
+     */
+    public void index(Item item) {
+        ItemDocument document = ItemDocument.of(item);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(document);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(document);
+            }
+        });
+    }
+
+    private void put(ItemDocument document) {
+        lock.writeLock().lock();
+        try {
+            remove(document.getId());
+            add(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ItemDocument> search(String text, long offset, int limit) {
+        List<ItemDocument> matching = matching(text.toLowerCase(Locale.ROOT), Long.MIN_VALUE, offset + limit);
+        return matching.subList((int) Math.min(offset, matching.size()), matching.size());
+    }
+
+    /**
+     * Подходящие по подстроке вещи копируются порциями по CHUNK_SIZE под блокировкой чтения,
+     * filter проверяется уже после её снятия: он может обращаться к базе и не должен задерживать
+     * обновления индекса. Следующая порция читается только тогда, когда в предыдущей не набралось
+     * offset + limit вещей, прошедших filter.
+     */
+    public List<ItemDocument> search(String text, long offset, int limit, LongPredicate filter) {
+        String query = text.toLowerCase(Locale.ROOT);
+        List<ItemDocument> found = new ArrayList<>(limit);
+        long skipped = 0;
+        long afterId = Long.MIN_VALUE;
+        while (found.size() < limit) {
+            List<ItemDocument> chunk = matching(query, afterId, CHUNK_SIZE);
+            for (ItemDocument document : chunk) {
+                if (found.size() == limit) {
+                    break;
+                }
+                if (!filter.test(document.getId())) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+                found.add(document);
+            }
+            if (chunk.size() < CHUNK_SIZE) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+        return found;
+    }
+
+    private List<ItemDocument> matching(String query, long afterId, long max) {
+        List<ItemDocument> matching = new ArrayList<>((int) Math.min(max, 1024));
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(query, afterId)) {
+                ItemDocument document = documents.get(id);
+                if (document == null || !document.matches(query)) {
+                    continue;
+                }
+                matching.add(document);
+                if (matching.size() == max) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matching;
+    }
+
+    /**
+     * Возвращает страницу наиболее релевантных вещей. Совпадения в названии весят больше,
+     * чем в описании, за точное совпадение слова начисляется бонус. Страница выбирается
+     * кучей ограниченного размера offset + limit без сортировки всех найденных вещей.
+     */
+    public List<ItemDocument> searchRanked(String text, long offset, int limit) {
+        String query = text.toLowerCase(Locale.ROOT);
+        List<String> queryTokens = tokens(query);
+        int capacity = (int) Math.min(offset + limit, Integer.MAX_VALUE - 1);
+        PriorityQueue<ScoredDocument> top = new PriorityQueue<>(Math.min(capacity, 1024) + 1, WORST_FIRST);
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(query, Long.MIN_VALUE)) {
+                ItemDocument document = documents.get(id);
+                if (document == null || !document.matches(query)) {
+                    continue;
+                }
+                ScoredDocument scored = new ScoredDocument(document, score(document, queryTokens));
+                if (top.size() < capacity) {
+                    top.add(scored);
+                } else if (WORST_FIRST.compare(scored, top.peek()) > 0) {
+                    top.poll();
+                    top.add(scored);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        ScoredDocument[] best = top.toArray(new ScoredDocument[0]);
+        Arrays.sort(best, WORST_FIRST.reversed());
+        List<ItemDocument> found = new ArrayList<>(limit);
+        for (long i = offset; i < best.length && found.size() < limit; i++) {
+            found.add(best[(int) i].getDocument());
+        }
+        return found;
+    }
+
+    /**
+     * Кандидаты с id больше afterId в порядке возрастания id.
+     */
+    private Iterable<Long> candidates(String query, long afterId) {
+        if (query.length() < GRAM_LENGTH) {
+            return documents.tailMap(afterId, false).keySet();
+        }
+        Set<String> grams = grams(query);
+        List<NavigableSet<Long>> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            NavigableSet<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        NavigableSet<Long> smallest = lists.get(0).tailSet(afterId, false);
+        List<NavigableSet<Long>> others = lists.subList(1, lists.size());
+        return () -> smallest.stream()
+                .filter(id -> others.stream().allMatch(ids -> ids.contains(id)))
+                .iterator();
+    }
+
+    private void add(ItemDocument document) {
+        documents.put(document.getId(), document);
+        for (String gram : documentGrams(document)) {
+            postings.computeIfAbsent(gram, key -> new TreeSet<>()).add(document.getId());
+        }
+    }
+
+    private void remove(Long id) {
+        ItemDocument document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String gram : documentGrams(document)) {
+            NavigableSet<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static int score(ItemDocument document, List<String> queryTokens) {
+        return score(tokens(document.getSearchName()), queryTokens, NAME_WEIGHT)
+                + score(tokens(document.getSearchDescription()), queryTokens, DESCRIPTION_WEIGHT);
+    }
+
+    private static int score(List<String> documentTokens, List<String> queryTokens, int weight) {
+        int score = 0;
+        for (String queryToken : queryTokens) {
+            for (String documentToken : documentTokens) {
+                if (documentToken.equals(queryToken)) {
+                    score += weight + EXACT_TOKEN_BONUS;
+                } else if (documentToken.contains(queryToken)) {
+                    score += weight;
+                }
+            }
+        }
+        return score;
+    }
+
+    private static List<String> tokens(String text) {
+        return Arrays.stream(TOKEN_SEPARATOR.split(text))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static Set<String> documentGrams(ItemDocument document) {
+        Set<String> grams = grams(document.getSearchName());
+        grams.addAll(grams(document.getSearchDescription()));
+        return grams;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class ScoredDocument {
+        private final ItemDocument document;
+        private final int score;
+    }
+}
@@ -1,20 +1,34 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.AvailabilityGranularity;
+import ru.practicum.shareit.item.dto.AvailabilityRangeDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.utils.CursorPage;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
     ItemDto addItem(Long userId, ItemDto itemDto);
 
+    ItemBatchResultDto addItems(Long userId, List<ItemDto> itemDtos);
+
     ItemDto renewalItem(Long itemId, ItemDto itemDto, Long userId);
 
     ItemDto getItemById(Long itemId, Long ownerId);
 
+    List<AvailabilityRangeDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to,
+                                               AvailabilityGranularity granularity);
+
     List<ItemDto> getPersonal(Long userId, Integer from, Integer size);
 
-    List<ItemDto> search(String text, Integer from, Integer size);
+    CursorPage<ItemDto> getPersonalByCursor(Long userId, String cursor, Integer size);
+
+    List<ItemDto> search(String text, Integer from, Integer size, Boolean rank);
+
+    List<ItemDto> searchAvailable(String text, LocalDateTime start, LocalDateTime end, Integer from, Integer size);
 
     CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
 }
\ No newline at end of file
@@ -6,48 +6,68 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.BookingStatus;
-import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.dto.BookingMapper;
-import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingTimelineService;
 import ru.practicum.shareit.exceptions.IllegalAccessException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.RequestException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.AvailabilityGranularity;
+import ru.practicum.shareit.item.dto.AvailabilityRangeDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemBatchErrorDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemDocument;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.messages.LogMessages;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.index.UserIdIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.Cursor;
+import ru.practicum.shareit.utils.CursorPage;
 import ru.practicum.shareit.utils.PageSetup;
 
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final Sort SORT_BY_ID = Sort.by("id").ascending();
+    static final int MAX_AVAILABILITY_SLOTS = 24 * 366;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserIdIndex userIdIndex;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
     private final ItemRequestRepository itemRequestRepository;
-    public static final Sort SORT_BY_START_ASC = Sort.by("start").ascending();
-    public static final Sort SORT_BY_START_DESC = Sort.by("start").descending();
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingTimelineService bookingTimelineService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final EntityManager entityManager;
 
     @Override
     public ItemDto addItem(Long userId, ItemDto itemDto) {
@@ -59,13 +79,48 @@ public class ItemServiceImpl implements ItemService {
             ItemRequest itemRequest = itemRequestRepository.validateItemRequest(requestId);
             item.setRequest(itemRequest);
         }
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemSearchIndex.index(savedItem);
+        return ItemMapper.toItemDto(savedItem);
+    }
+
+    /**
+     * Владелец и запросы вещей проверяются один раз на весь пакет, строки с ошибками пропускаются
+     * и возвращаются вместе с причиной. Остальные вставляются пакетами JDBC по INSERT_BATCH_SIZE строк,
+     * после каждого пакета контекст персистентности очищается.
+     */
+    @Override
+    @Transactional
+    public ItemBatchResultDto addItems(Long userId, List<ItemDto> itemDtos) {
+        User user = userRepository.validateUser(userId);
+        Map<Long, ItemRequest> requests = findRequests(itemDtos);
+        List<ItemDto> created = new ArrayList<>(itemDtos.size());
+        List<ItemBatchErrorDto> errors = new ArrayList<>();
+        List<Item> pending = new ArrayList<>(ItemRepository.INSERT_BATCH_SIZE);
+        for (int index = 0; index < itemDtos.size(); index++) {
+            ItemDto itemDto = itemDtos.get(index);
+            String error = validateBatchItem(itemDto, requests);
+            if (error != null) {
+                errors.add(new ItemBatchErrorDto(index, error));
+                continue;
+            }
+            Item item = ItemMapper.toItem(itemDto, user);
+            item.setId(null);
+            item.setRequest(itemDto.getRequestId() == null ? null : requests.get(itemDto.getRequestId()));
+            pending.add(item);
+            if (pending.size() == ItemRepository.INSERT_BATCH_SIZE) {
+                created.addAll(saveBatch(pending));
+                pending.clear();
+            }
+        }
+        created.addAll(saveBatch(pending));
+        return new ItemBatchResultDto(created, errors);
     }
 
     @Override
     public ItemDto renewalItem(Long itemId, ItemDto itemDto, Long userId) {
         Item item = itemRepository.validateItem(itemId);
-        userRepository.validateUser(userId);
+        userIdIndex.validateUser(userId);
         if (!item.getOwner().getId().equals(userId)) {
             log.warn(LogMessages.ILLEGAL_ACCESS.toString());
             throw new IllegalAccessException(LogMessages.ILLEGAL_ACCESS.toString());
@@ -84,6 +139,7 @@ public class ItemServiceImpl implements ItemService {
         }
         ItemMapper.toItemDto(item);
         Item updatedItem = itemRepository.save(item);
+        itemSearchIndex.index(updatedItem);
         return ItemMapper.toItemDto(updatedItem);
     }
 
@@ -95,51 +151,108 @@ public class ItemServiceImpl implements ItemService {
         List<Comment> comments = commentRepository.findAllByItemId(itemId);
         setComments(itemDto, comments);
         if (item.getOwner().getId().equals(ownerId)) {
-            setBookings(itemDto);
+            bookingTimelineService.setLastAndNextBookings(List.of(itemDto));
         }
         return itemDto;
     }
 
+    /**
+     * Период выравнивается по границам слотов, занятость слотов берётся из индекса интервалов
+     * бронирований, соседние слоты с одинаковым состоянием склеиваются в один диапазон.
+     */
+    @Override
+    public List<AvailabilityRangeDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to,
+                                                      AvailabilityGranularity granularity) {
+        itemRepository.validateItem(itemId);
+        if (!from.isBefore(to)) {
+            log.warn(LogMessages.AVAILABILITY_PERIOD.toString());
+            throw new ValidationException(LogMessages.AVAILABILITY_PERIOD.toString());
+        }
+        LocalDateTime start = granularity.floor(from);
+        Duration slot = granularity.getDuration();
+        long slots = Duration.between(start, granularity.ceil(to)).dividedBy(slot);
+        if (slots > MAX_AVAILABILITY_SLOTS) {
+            log.warn(LogMessages.AVAILABILITY_TOO_LONG.toString() + slots);
+            throw new ValidationException(LogMessages.AVAILABILITY_TOO_LONG.toString() + slots);
+        }
+        BitSet busy = bookingIntervalIndex.busySlots(itemId, start, slot, (int) slots);
+        List<AvailabilityRangeDto> ranges = new ArrayList<>();
+        int first = 0;
+        while (first < slots) {
+            boolean free = !busy.get(first);
+            int next = free ? busy.nextSetBit(first) : busy.nextClearBit(first);
+            if (next < 0 || next > slots) {
+                next = (int) slots;
+            }
+            ranges.add(new AvailabilityRangeDto(start.plus(slot.multipliedBy(first)),
+                    start.plus(slot.multipliedBy(next)), free));
+            first = next;
+        }
+        return ranges;
+    }
+
     @Override
     public List<ItemDto> getPersonal(Long userId, Integer from, Integer size) {
-        userRepository.validateUser(userId);
-        PageRequest pageRequest = new PageSetup(from, size, Sort.by("id").ascending());
+        userIdIndex.validateUser(userId);
+        PageRequest pageRequest = new PageSetup(from, size, SORT_BY_ID);
         List<Item> items = itemRepository.findAllByOwnerId(userId, pageRequest).getContent();
         if (items.isEmpty()) {
             log.warn(LogMessages.NOT_FOUND.toString());
             throw new NotFoundException(LogMessages.NOT_FOUND.toString());
         }
-        Map<Long, List<BookingDto>> bookings =
-                bookingRepository.findAllByOwnerAndStatus(userId, BookingStatus.APPROVED, SORT_BY_START_ASC)
-                        .stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.groupingBy(BookingDto::getItemId));
+        return toPersonalItemDtos(items);
+    }
 
-        Map<Long, List<CommentDto>> comments = commentRepository.findAllByItemIn(items)
-                .stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.groupingBy(CommentDto::getItemId));
+    @Override
+    public CursorPage<ItemDto> getPersonalByCursor(Long userId, String cursor, Integer size) {
+        userIdIndex.validateUser(userId);
+        Cursor after = Cursor.decode(cursor);
+        List<Item> items;
+        if (after == null) {
+            items = itemRepository.findAllByOwnerId(userId, new PageSetup(0, size + 1, SORT_BY_ID)).getContent();
+        } else {
+            items = itemRepository.findAllByOwnerIdAndIdGreaterThan(userId, after.getId(),
+                    PageRequest.of(0, size + 1, SORT_BY_ID));
+        }
+        if (items.isEmpty()) {
+            return new CursorPage<>(Collections.emptyList(), null);
+        }
+        return CursorPage.of(items, size, last -> Cursor.encode(last.getId()), this::toPersonalItemDtos);
+    }
 
-        return items.stream()
-                .map(item -> ItemMapper.toItemDto(
-                        item,
-                        getLastBookingForPersonal(bookings.get(item.getId())),
-                        getNextBookingForPersonal(bookings.get(item.getId())),
-                        comments.getOrDefault(item.getId(), Collections.emptyList())))
+    @Override
+    public List<ItemDto> search(String text, Integer from, Integer size, Boolean rank) {
+        if (text.isBlank()) {
+            log.warn(LogMessages.BLANK_TEXT.toString());
+            return Collections.emptyList();
+        }
+        PageRequest pageRequest = new PageSetup(from, size, Sort.unsorted());
+        List<ItemDocument> documents = Boolean.TRUE.equals(rank)
+                ? itemSearchIndex.searchRanked(text, pageRequest.getOffset(), pageRequest.getPageSize())
+                : itemSearchIndex.search(text, pageRequest.getOffset(), pageRequest.getPageSize());
+        return documents.stream()
+                .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Вещи без активных бронирований, пересекающих [start, end): кандидаты из поискового индекса
+     * проверяются по индексу интервалов, пока не наберётся страница.
+     */
     @Override
-    public List<ItemDto> search(String text, Integer from, Integer size) {
+    public List<ItemDto> searchAvailable(String text, LocalDateTime start, LocalDateTime end, Integer from, Integer size) {
+        if (!start.isBefore(end)) {
+            log.warn(LogMessages.AVAILABILITY_PERIOD.toString());
+            throw new ValidationException(LogMessages.AVAILABILITY_PERIOD.toString());
+        }
         if (text.isBlank()) {
             log.warn(LogMessages.BLANK_TEXT.toString());
             return Collections.emptyList();
         }
-        String lowerText = text.toLowerCase();
         PageRequest pageRequest = new PageSetup(from, size, Sort.unsorted());
-        Collection<Item> items = itemRepository.searchItemByText(lowerText,
-                pageRequest).getContent();
-        return items.stream()
+        return itemSearchIndex.search(text, pageRequest.getOffset(), pageRequest.getPageSize(),
+                        itemId -> !bookingIntervalIndex.hasOverlap(itemId, start, end))
+                .stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
@@ -161,41 +274,79 @@ public class ItemServiceImpl implements ItemService {
         return CommentMapper.toCommentDto(comment);
     }
 
-    private void setComments(ItemDto itemDto, List<Comment> comments) {
-        itemDto.setComments(comments.stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList()));
+    private Map<Long, ItemRequest> findRequests(List<ItemDto> itemDtos) {
+        Set<Long> requestIds = itemDtos.stream()
+                .filter(Objects::nonNull)
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (requestIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return itemRequestRepository.findAllById(requestIds)
+                .stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
     }
 
-    public void setBookings(ItemDto itemDto) {
-        Long itemId = itemDto.getId();
-        Booking lastBooking = bookingRepository.findFirstByItemIdAndStartBeforeAndStatus(
-                itemId, LocalDateTime.now(), BookingStatus.APPROVED, SORT_BY_START_DESC).orElse(null);
-        itemDto.setLastBooking(BookingMapper.toBookingShortDto(lastBooking));
-        Booking nextBooking = bookingRepository.findFirstByItemIdAndStartAfterAndStatus(
-                itemId, LocalDateTime.now(), BookingStatus.APPROVED, SORT_BY_START_ASC).orElse(null);
-        itemDto.setNextBooking(BookingMapper.toBookingShortDto(nextBooking));
+    private static String validateBatchItem(ItemDto itemDto, Map<Long, ItemRequest> requests) {
+        if (itemDto == null) {
+            return LogMessages.EMPTY_ITEM.toString();
+        }
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            return LogMessages.EMPTY_NAME.toString();
+        }
+        if (itemDto.getName().length() > Item.NAME_LENGTH) {
+            return LogMessages.NAME_TOO_LONG.toString() + Item.NAME_LENGTH;
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            return LogMessages.EMPTY_DESCRIPTION.toString();
+        }
+        if (itemDto.getDescription().length() > Item.DESCRIPTION_LENGTH) {
+            return LogMessages.DESCRIPTION_TOO_LONG.toString() + Item.DESCRIPTION_LENGTH;
+        }
+        if (itemDto.getAvailable() == null) {
+            return LogMessages.AVAILABLE_NULL.toString();
+        }
+        Long requestId = itemDto.getRequestId();
+        if (requestId != null && !requests.containsKey(requestId)) {
+            return LogMessages.NOT_FOUND.toString() + requestId;
+        }
+        return null;
     }
 
-    private BookingShortDto getNextBookingForPersonal(List<BookingDto> booking) {
-        if (booking == null || booking.isEmpty()) {
-            return null;
+    private List<ItemDto> saveBatch(List<Item> items) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
         }
-        return booking.stream()
-                .filter(b -> b.getStart().isAfter(LocalDateTime.now()))
-                .findFirst()
-                .map(BookingMapper::toBookingShortDto)
-                .orElse(null);
+        List<Item> savedItems = itemRepository.saveAll(items);
+        itemRepository.flush();
+        entityManager.clear();
+        savedItems.forEach(itemSearchIndex::index);
+        return savedItems.stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
     }
 
-    private BookingShortDto getLastBookingForPersonal(List<BookingDto> booking) {
-        if (booking == null || booking.isEmpty()) {
-            return null;
-        }
-        return booking.stream()
-                .filter(b -> b.getStart().isBefore(LocalDateTime.now()))
-                .reduce((booking1, booking2) -> booking2)
-                .map(BookingMapper::toBookingShortDto)
-                .orElse(null);
+    private List<ItemDto> toPersonalItemDtos(List<Item> items) {
+        Map<Long, List<CommentDto>> comments = commentRepository.findAllByItemIn(items)
+                .stream()
+                .map(CommentMapper::toCommentDto)
+                .collect(Collectors.groupingBy(CommentDto::getItemId));
+
+        List<ItemDto> itemDtos = items.stream()
+                .map(item -> ItemMapper.toItemDto(
+                        item,
+                        null,
+                        null,
+                        comments.getOrDefault(item.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+        bookingTimelineService.setLastAndNextBookings(itemDtos);
+        return itemDtos;
+    }
+
+    private void setComments(ItemDto itemDto, List<Comment> comments) {
+        itemDto.setComments(comments.stream()
+                .map(CommentMapper::toCommentDto)
+                .collect(Collectors.toList()));
     }
-}
\ No newline at end of file
+}
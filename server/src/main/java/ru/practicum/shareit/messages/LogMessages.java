@@ -2,11 +2,14 @@ package ru.practicum.shareit.messages;
 
 public enum LogMessages {
     ADD_REQUEST("Запрос на добавление объекта {}"),
+    ADD_BATCH_REQUEST("Запрос от {} на пакетное добавление вещей, строк: {}"),
     RENEWAL_REQUEST("Запрос на обновление объекта {}"),
     GET_BY_ID_REQUEST("Запрос на получение объекта по id {}"),
     GET_ALL_REQUEST("Запрос владельцем списка всех его вещей"),
     GET_ALL_USERS("Запрос списка всех пользователей"),
     SEARCH_REQUEST("Запрос на поиск вещи"),
+    SEARCH_AVAILABLE_REQUEST("Запрос на поиск вещи, свободной с {} по {}"),
+    AVAILABILITY_REQUEST("Запрос занятости вещи {} с {} по {}, шаг {}"),
     REMOVE_REQUEST("Запрос на удаление пользователя {} "),
     ADD_ITEMREQUEST_REQUEST("Запрос на добавление нового запроса вещи"),
     BAD_REQUEST_STATUS("Ошибка 400!"),
@@ -21,9 +24,11 @@ public enum LogMessages {
     REQUEST_EXCEPTION("Пользователь {} не может оставить комментрарий, аренда не закончилась"),
     BOOKING_REQUEST("Запрос от пользователя {} на бронирование {}"),
     BOOKING_RENEWAL_REQUEST("Запрос на подтверждение/отклонение бронирования {}"),
+    BOOKING_BATCH_RENEWAL_REQUEST("Запрос от {} на подтверждение/отклонение бронирований, решений: {}"),
     GET_BOOKING_REQUEST("Запрос от {} на получение бронирования {}"),
     GET_BOOKING_REQUEST_STATUS("Запрос от {} на получение бронирования со статусом {} "),
     GET_ALL_BOOKING_REQUEST_STATUS("Запрос от {} на получение списка бронирования всех предметов со статусом {} "),
+    EXPORT_OWNER_BOOKINGS_REQUEST("Запрос от {} на выгрузку истории бронирований всех предметов"),
     BOOKING_START_DATE("Дата начала бронирования не может быть позднее даты его начала"),
     BOOKING_START_DATE_EQUAL("Дата начала бронирования не может быть равна дате его начала"),
     BOOKING_NOT_AVAILABLE("Предмет с id {} не доступен для бронирования"),
@@ -31,7 +36,25 @@ public enum LogMessages {
     BOOKING_INVALID_ID("Нет прав на подтверждение бронирования. " +
             "Пользователь {} не является собственником предмета"),
     BOOKING_APPROVED("Данное бронирование уже было подтверждено"),
+    BOOKING_DECISION_NULL("Решение по бронированию отсутствует"),
+    BOOKING_DECISION_DUPLICATE("Решение по бронированию уже указано в этом пакете"),
+    BOOKING_CONFLICT("Статус бронирования изменён параллельным запросом, повторите решение: "),
+    BOOKING_OVERLAP("Предмет с id {} уже забронирован на указанный период"),
+    BOOKING_INDEX_LOADED("Индекс интервалов бронирований загружен, вещей с бронированиями: {}"),
+    SEARCH_INDEX_LOADED("Поисковый индекс вещей загружен, проиндексировано вещей: {}"),
+    USER_INDEX_LOADED("Индекс идентификаторов пользователей загружен, пользователей: {}"),
+    VIRTUAL_THREADS_ENABLED("Запросы Tomcat и асинхронные задачи выполняются в виртуальных потоках"),
+    VIRTUAL_THREADS_UNAVAILABLE("Виртуальные потоки недоступны в Java "),
     BOOKING_GET_BY_ID("Пользователь {} не обладает правами для просмотра данных о бронировании"),
+    EMPTY_ITEM("Пустая строка пакета"),
+    EMPTY_NAME("Имя не может быть пустым"),
+    EMPTY_DESCRIPTION("Описание не может быть пустым"),
+    NAME_TOO_LONG("Имя длиннее допустимого, максимум символов: "),
+    DESCRIPTION_TOO_LONG("Описание длиннее допустимого, максимум символов: "),
+    AVAILABLE_NULL("Статус доступности вещи отсутствует"),
+    AVAILABILITY_PERIOD("Начало периода занятости должно быть раньше его конца"),
+    AVAILABILITY_TOO_LONG("Период занятости слишком длинный, слотов: "),
+    INVALID_CURSOR("Некорректный курсор пагинации: "),
     UNSUPPORTED_STATUS("Unknown state: ");
 
 
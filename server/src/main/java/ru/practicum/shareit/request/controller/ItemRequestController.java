@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.messages.LogMessages;
 import ru.practicum.shareit.request.dto.AddItemRequestDto;
@@ -32,10 +33,14 @@ public class ItemRequestController {
     }
 
     @GetMapping("all")
-    public List<AddItemRequestDto> getOtherUsersRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                         @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                         @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        return itemRequestService.getOtherUsersRequests(userId, from, size);
+    public ResponseEntity<List<AddItemRequestDto>> getOtherUsersRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                         @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                         @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                                         @RequestParam(name = "cursor", required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(itemRequestService.getOtherUsersRequests(userId, from, size));
+        }
+        return itemRequestService.getOtherUsersRequestsByCursor(userId, cursor, size).toResponseEntity();
     }
 
     @GetMapping("{requestId}")
@@ -23,7 +23,10 @@ public class ItemRequestMapper {
     }
 
     public static AddItemRequestDto toAddItemRequest(ItemRequest itemRequest) {
-        List<Item> items = itemRequest.getItems();
+        return toAddItemRequest(itemRequest, itemRequest.getItems());
+    }
+
+    public static AddItemRequestDto toAddItemRequest(ItemRequest itemRequest, List<Item> items) {
         return AddItemRequestDto.builder()
                 .id(itemRequest.getId())
                 .requestor(itemRequest.getRequestor().getId())
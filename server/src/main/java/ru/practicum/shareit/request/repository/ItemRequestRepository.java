@@ -1,12 +1,15 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.messages.LogMessages;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
@@ -16,7 +19,18 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
                 LogMessages.NOT_FOUND.toString() + requestId));
     }
 
+    @EntityGraph(attributePaths = "requestor")
+    @Query("SELECT r FROM ItemRequest AS r " +
+            "WHERE r.requestor.id = :requestorId")
     List<ItemRequest> findAllByRequestorId(Long requestorId);
 
-    Page<ItemRequest> findAllByRequestorIdNot(Long userId, Pageable pageable);
+    @EntityGraph(attributePaths = "requestor")
+    Slice<ItemRequest> findAllByRequestorIdNot(Long userId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "requestor")
+    @Query("SELECT r FROM ItemRequest AS r " +
+            "WHERE r.requestor.id <> :userId " +
+            "AND (r.created < :created OR (r.created = :created AND r.id < :id)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findOtherUsersRequestsAfter(Long userId, LocalDateTime created, Long id, Pageable pageable);
 }
\ No newline at end of file
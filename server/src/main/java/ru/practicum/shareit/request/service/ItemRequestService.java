@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.request.dto.AddItemRequestDto;
+import ru.practicum.shareit.utils.CursorPage;
 
 import java.util.List;
 
@@ -12,5 +13,7 @@ public interface ItemRequestService {
 
     List<AddItemRequestDto> getOtherUsersRequests(Long userId, Integer from, Integer size);
 
+    CursorPage<AddItemRequestDto> getOtherUsersRequestsByCursor(Long userId, String cursor, Integer size);
+
     AddItemRequestDto getItemRequestById(Long userId, Long requestId);
 }
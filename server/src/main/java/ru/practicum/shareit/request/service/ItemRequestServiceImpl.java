@@ -5,25 +5,34 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.AddItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.index.UserIdIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.Cursor;
+import ru.practicum.shareit.utils.CursorPage;
 import ru.practicum.shareit.utils.PageSetup;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
-    private static final Sort SORT_BY_CREATED_DESC = Sort.by("created").descending();
+    private static final Sort SORT_BY_CREATED_DESC = Sort.by(Sort.Order.desc("created"), Sort.Order.desc("id"));
     private final UserRepository userRepository;
+    private final UserIdIndex userIdIndex;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
 
     @Override
     public AddItemRequestDto addRequest(AddItemRequestDto addItemRequestDto, Long requestorId) {
@@ -37,24 +46,51 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public List<AddItemRequestDto> getUserRequests(Long requestorId) {
         User user = userRepository.validateUser(requestorId);
-        return itemRequestRepository.findAllByRequestorId(user.getId()).stream()
-                .map(ItemRequestMapper::toAddItemRequest)
-                .collect(Collectors.toList());
+        return toAddItemRequests(itemRequestRepository.findAllByRequestorId(user.getId()));
     }
 
     @Override
     public List<AddItemRequestDto> getOtherUsersRequests(Long userId, Integer from, Integer size) {
-        userRepository.validateUser(userId);
+        userIdIndex.validateUser(userId);
         PageRequest pageable = new PageSetup(from, size, SORT_BY_CREATED_DESC);
-        return itemRequestRepository.findAllByRequestorIdNot(userId, pageable)
-                .map(ItemRequestMapper::toAddItemRequest)
-                .getContent();
+        return toAddItemRequests(itemRequestRepository.findAllByRequestorIdNot(userId, pageable).getContent());
+    }
+
+    @Override
+    public CursorPage<AddItemRequestDto> getOtherUsersRequestsByCursor(Long userId, String cursor, Integer size) {
+        userIdIndex.validateUser(userId);
+        Cursor after = Cursor.decode(cursor);
+        List<ItemRequest> itemRequests;
+        if (after == null) {
+            PageRequest pageable = new PageSetup(0, size + 1, SORT_BY_CREATED_DESC);
+            itemRequests = itemRequestRepository.findAllByRequestorIdNot(userId, pageable).getContent();
+        } else {
+            itemRequests = itemRequestRepository.findOtherUsersRequestsAfter(userId, after.getTimestamp(),
+                    after.getId(), PageRequest.of(0, size + 1));
+        }
+        return CursorPage.of(itemRequests, size, last -> Cursor.encode(last.getCreated(), last.getId()),
+                this::toAddItemRequests);
     }
 
     @Override
     public AddItemRequestDto getItemRequestById(Long userId, Long requestId) {
-        userRepository.validateUser(userId);
+        userIdIndex.validateUser(userId);
         ItemRequest itemRequest = itemRequestRepository.validateItemRequest(requestId);
         return ItemRequestMapper.toAddItemRequest(itemRequest);
     }
+
+    private List<AddItemRequestDto> toAddItemRequests(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> items = itemRepository.findAllByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+        return itemRequests.stream()
+                .map(itemRequest -> ItemRequestMapper.toAddItemRequest(itemRequest,
+                        items.getOrDefault(itemRequest.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
 }
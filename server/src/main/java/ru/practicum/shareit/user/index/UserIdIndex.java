@@ -0,0 +1,124 @@
+package ru.practicum.shareit.user.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.messages.LogMessages;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserRemovedEvent;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Битовое множество идентификаторов существующих пользователей для проверок, которым не нужна сама сущность.
+ * Отсутствующий в множестве идентификатор перепроверяется запросом existsById,
+ * так что пользователи, сохранённые в обход UserService, тоже находятся. Найденный в базе идентификатор
+ * запоминается, только если за время проверки никого не удаляли: иначе ответ базы мог устареть.
+ * Бит отводится под каждый id до максимального, поэтому память растёт с максимальным id, а не с числом пользователей.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserIdIndex {
+    private final UserRepository userRepository;
+    private final BitSet ids = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong removals = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Long> loaded = userRepository.findAllIds();
+        lock.writeLock().lock();
+        try {
+            ids.clear();
+            loaded.forEach(this::set);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info(LogMessages.USER_INDEX_LOADED.toString(), loaded.size());
+    }
+
+    @EventListener
+    public void onUserRemoved(UserRemovedEvent event) {
+        if (!isIndexable(event.getUserId())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ids.clear(event.getUserId().intValue());
+            removals.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void register(Long userId) {
+        lock.writeLock().lock();
+        try {
+            set(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean exists(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        if (isIndexed(userId)) {
+            return true;
+        }
+        long removalsBefore = removals.get();
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            registerIfNoRemovalsSince(userId, removalsBefore);
+        }
+        return exists;
+    }
+
+    public void validateUser(Long userId) {
+        if (!exists(userId)) {
+            throw new NotFoundException(LogMessages.NOT_FOUND.toString() + userId);
+        }
+    }
+
+    private void registerIfNoRemovalsSince(Long userId, long removalsBefore) {
+        lock.writeLock().lock();
+        try {
+            if (removals.get() == removalsBefore) {
+                set(userId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isIndexed(Long userId) {
+        if (!isIndexable(userId)) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return ids.get(userId.intValue());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void set(Long userId) {
+        if (isIndexable(userId)) {
+            ids.set(userId.intValue());
+        }
+    }
+
+    private static boolean isIndexable(Long userId) {
+        return userId != null && userId >= 0 && userId <= Integer.MAX_VALUE;
+    }
+}
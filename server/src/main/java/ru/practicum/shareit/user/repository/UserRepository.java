@@ -1,14 +1,20 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.messages.LogMessages;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+
 public interface UserRepository extends JpaRepository<User, Long> {
 
     default User validateUser(Long userId) {
         return findById(userId).orElseThrow(() -> new NotFoundException(
                 LogMessages.NOT_FOUND.toString() + userId));
     }
+
+    @Query("SELECT u.id FROM User AS u")
+    List<Long> findAllIds();
 }
\ No newline at end of file
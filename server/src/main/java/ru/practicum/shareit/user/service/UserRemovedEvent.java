@@ -0,0 +1,16 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class UserRemovedEvent {
+    private final Long userId;
+    // Вещи пользователя и вещи, которые он бронировал: их бронирования удаляются вместе с пользователем
+    private final List<Long> itemIds;
+    // Вещи других пользователей, созданные по его запросам: каскад удаляет их вместе с запросами
+    private final List<Long> requestItemIds;
+}
@@ -2,9 +2,13 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.index.UserIdIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -16,10 +20,16 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserIdIndex userIdIndex;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserDto addUser(UserDto userDto) {
-        return UserMapper.toUserDto(userRepository.save(UserMapper.toUser(userDto)));
+        User user = userRepository.save(UserMapper.toUser(userDto));
+        userIdIndex.register(user.getId());
+        return UserMapper.toUserDto(user);
     }
 
     @Override
@@ -53,6 +63,9 @@ public class UserServiceImpl implements UserService {
     @Override
     public void removeUserById(Long userId) {
         userRepository.validateUser(userId);
+        List<Long> itemIds = bookingRepository.findItemIdsByBookerIdOrOwnerId(userId);
+        List<Long> requestItemIds = itemRepository.findIdsByRequestorId(userId);
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(new UserRemovedEvent(userId, itemIds, requestItemIds));
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.messages.LogMessages;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Позиция последней строки страницы для keyset-пагинации: ключ сортировки и id.
+ * Клиенту передаётся в виде непрозрачной base64-строки. Время усекается до микросекунд,
+ * с которыми его хранит база.
+ */
+@Getter
+@AllArgsConstructor
+public class Cursor {
+    private static final String SEPARATOR = "~";
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    public static String encode(LocalDateTime timestamp, Long id) {
+        String raw = (timestamp == null ? "" : timestamp.truncatedTo(ChronoUnit.MICROS).toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String encode(Long id) {
+        return encode(null, id);
+    }
+
+    /**
+     * Пустой курсор означает первую страницу, для него возвращается null.
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            String timestamp = raw.substring(0, separator);
+            return new Cursor(timestamp.isEmpty() ? null : LocalDateTime.parse(timestamp),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new ValidationException(LogMessages.INVALID_CURSOR.toString() + cursor);
+        }
+    }
+}
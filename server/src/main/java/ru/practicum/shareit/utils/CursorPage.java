@@ -0,0 +1,38 @@
+package ru.practicum.shareit.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private final List<T> content;
+    private final String next;
+
+    /**
+     * Страница строится из строк, запрошенных с запасом в одну строку: лишняя строка отбрасывается
+     * и означает, что следующая страница не пуста. Для ровно заполненной последней страницы
+     * курсор не возвращается.
+     */
+    public static <R, T> CursorPage<T> of(List<R> rows, int size, Function<R, String> cursor,
+                                          Function<List<R>, List<T>> mapper) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(mapper.apply(rows), null);
+        }
+        List<R> page = rows.subList(0, size);
+        return new CursorPage<>(mapper.apply(page), cursor.apply(page.get(size - 1)));
+    }
+
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (next != null) {
+            builder.header(NEXT_CURSOR_HEADER, next);
+        }
+        return builder.body(content);
+    }
+}
@@ -4,7 +4,25 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 
 public class PageSetup extends PageRequest {
+    private final long offset;
+
     public PageSetup(Integer from, Integer size, Sort sort) {
         super(from / size, size, sort);
+        this.offset = from;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof PageSetup && super.equals(obj) && offset == ((PageSetup) obj).offset;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + Long.hashCode(offset);
     }
-}
\ No newline at end of file
+}
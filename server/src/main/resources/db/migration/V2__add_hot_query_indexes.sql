@@ -0,0 +1,18 @@
+-- Booker listings: WHERE booker_id = ? [AND start/end range] ORDER BY start_date DESC
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC);
+
+-- Booker listings by state: WHERE booker_id = ? AND status = ? ORDER BY start_date DESC
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx ON bookings (booker_id, status, start_date DESC);
+
+-- Per-item lookups: overlap index load, last/next booking, comment eligibility,
+-- and the bookings side of the owner joins
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start_date);
+
+-- Owner listings resolve bookings through items.owner_id
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS requests_requestor_created_idx ON requests (requestor_id, created DESC);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
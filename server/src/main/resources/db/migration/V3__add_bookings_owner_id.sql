@@ -0,0 +1,12 @@
+-- Owner listings filter bookings by the item owner; keep it on the booking to skip the items join
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT REFERENCES users (id) ON DELETE CASCADE;
+
+UPDATE bookings AS b SET owner_id = (SELECT i.owner_id FROM items AS i WHERE i.id = b.item_id) WHERE owner_id IS NULL;
+
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+
+-- Owner listings: WHERE owner_id = ? [AND start/end range] ORDER BY start_date DESC
+CREATE INDEX IF NOT EXISTS bookings_owner_start_idx ON bookings (owner_id, start_date DESC);
+
+-- Owner listings by state: WHERE owner_id = ? AND status = ? ORDER BY start_date DESC
+CREATE INDEX IF NOT EXISTS bookings_owner_status_start_idx ON bookings (owner_id, status, start_date DESC);
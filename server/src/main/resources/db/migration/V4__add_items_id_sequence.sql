@@ -0,0 +1,2 @@
+-- Item ids come from a pooled sequence so Hibernate can batch item inserts; the step matches allocationSize
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 50 INCREMENT BY 50;
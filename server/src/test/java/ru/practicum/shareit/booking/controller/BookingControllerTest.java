@@ -11,6 +11,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exceptions.InvalidIdException;
@@ -18,17 +20,23 @@ import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDtoShort;
 import ru.practicum.shareit.user.dto.UserDtoShort;
+import ru.practicum.shareit.utils.CursorPage;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -243,4 +251,64 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].end", is(bookingDto.getEnd().format(formatter))))
                 .andExpect(jsonPath("$[0].status", is(bookingDto.getStatus().name())));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getAllUserBookingsByCursor() throws Exception {
+        when(bookingService.getAllUserBookingsByCursor(anyLong(), any(), eq(""), anyInt()))
+                .thenReturn(new CursorPage<>(List.of(bookingDto), "next"));
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("state", "ALL")
+                        .param("cursor", "")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].itemId", is(bookingDto.getItemId()), Long.class));
+    }
+
+    @Test
+    public void renewalBookingsReturnsPerBookingResults() throws Exception {
+        when(bookingService.renewalBookings(anyLong(), anyList())).thenReturn(List.of(
+                BookingDecisionResultDto.of(1L, BookingStatus.APPROVED),
+                BookingDecisionResultDto.failed(2L, "Данное бронирование уже было подтверждено")));
+        mockMvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(objectMapper.writeValueAsString(List.of(new BookingDecisionDto(1L, true),
+                                new BookingDecisionDto(2L, false))))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is(BookingStatus.APPROVED.name())))
+                .andExpect(jsonPath("$[1].bookingId", is(2L), Long.class))
+                .andExpect(jsonPath("$[1].error", is("Данное бронирование уже было подтверждено")));
+    }
+
+    @Test
+    public void exportOwnerBookingsWritesJsonLines() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<BookingDto> consumer = invocation.getArgument(1);
+            consumer.accept(bookingDto);
+            consumer.accept(bookingDto);
+            return null;
+        }).when(bookingService).exportOwnerBookings(eq(1L), any());
+        String line = objectMapper.writeValueAsString(bookingDto);
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + "\n" + line + "\n"));
+    }
+
+    @Test
+    void exportOwnerBookingsOfUnknownUserReturnsNotFound() throws Exception {
+        doThrow(new NotFoundException("Объект не найден {}"))
+                .when(bookingService).exportOwnerBookings(eq(99L), any());
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 99))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.service.UserRemovedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+    @Mock
+    private BookingRepository bookingRepository;
+    @InjectMocks
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Test
+    public void bookingCommittedDuringLoadIsNotLost() {
+        when(bookingRepository.findAllIntervalsByStatusIn(BookingIntervalIndex.BLOCKING_STATUSES)).thenAnswer(invocation -> {
+            bookingIntervalIndex.register(booking(10L, 1L, now.plusDays(1), now.plusDays(2)));
+            return List.of();
+        });
+        when(bookingRepository.findIntervalsByItemIdAndStatusIn(1L, BookingIntervalIndex.BLOCKING_STATUSES))
+                .thenReturn(List.of(new BookingInterval(10L, 1L, now.plusDays(1), now.plusDays(2))));
+
+        bookingIntervalIndex.load();
+
+        assertTrue(bookingIntervalIndex.hasOverlap(1L, now, now.plusDays(3)));
+        assertTrue(bookingIntervalIndex.hasOverlap(1L, now, now.plusDays(3)));
+        verify(bookingRepository, times(1)).findIntervalsByItemIdAndStatusIn(1L, BookingIntervalIndex.BLOCKING_STATUSES);
+    }
+
+    @Test
+    public void userRemovalRereadsOnlyAffectedItems() {
+        when(bookingRepository.findAllIntervalsByStatusIn(BookingIntervalIndex.BLOCKING_STATUSES)).thenReturn(List.of(
+                new BookingInterval(10L, 1L, now.plusDays(1), now.plusDays(2)),
+                new BookingInterval(11L, 2L, now.plusDays(1), now.plusDays(2))));
+        when(bookingRepository.findIntervalsByItemIdAndStatusIn(1L, BookingIntervalIndex.BLOCKING_STATUSES))
+                .thenReturn(List.of());
+        bookingIntervalIndex.load();
+
+        bookingIntervalIndex.onUserRemoved(new UserRemovedEvent(5L, List.of(1L), List.of()));
+
+        assertFalse(bookingIntervalIndex.hasOverlap(1L, now, now.plusDays(3)));
+        assertTrue(bookingIntervalIndex.hasOverlap(2L, now, now.plusDays(3)));
+        verify(bookingRepository, times(1)).findAllIntervalsByStatusIn(BookingIntervalIndex.BLOCKING_STATUSES);
+        verify(bookingRepository, never()).findIntervalsByItemIdAndStatusIn(2L, BookingIntervalIndex.BLOCKING_STATUSES);
+    }
+
+    @Test
+    public void bookingCommittedDuringRereadKeepsItemStale() {
+        when(bookingRepository.findAllIntervalsByStatusIn(BookingIntervalIndex.BLOCKING_STATUSES)).thenReturn(List.of());
+        bookingIntervalIndex.load();
+        bookingIntervalIndex.invalidate(1L);
+        when(bookingRepository.findIntervalsByItemIdAndStatusIn(anyLong(), any()))
+                .thenAnswer(invocation -> {
+                    bookingIntervalIndex.register(booking(10L, 1L, now.plusDays(1), now.plusDays(2)));
+                    return List.of();
+                })
+                .thenReturn(List.of(new BookingInterval(10L, 1L, now.plusDays(1), now.plusDays(2))));
+
+        assertFalse(bookingIntervalIndex.hasOverlap(1L, now, now.plusDays(3)));
+        assertTrue(bookingIntervalIndex.hasOverlap(1L, now, now.plusDays(3)));
+        assertTrue(bookingIntervalIndex.hasOverlap(1L, now, now.plusDays(3)));
+        verify(bookingRepository, times(2)).findIntervalsByItemIdAndStatusIn(1L, BookingIntervalIndex.BLOCKING_STATUSES);
+    }
+
+    private static Booking booking(Long id, Long itemId, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .id(id)
+                .item(Item.builder().id(itemId).build())
+                .start(start)
+                .end(end)
+                .build();
+    }
+}
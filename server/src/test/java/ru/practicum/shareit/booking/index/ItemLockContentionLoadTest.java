@@ -0,0 +1,83 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Пропускная способность создания бронирований под ItemLockManager при 64 потоках:
+ * все потоки бронируют одну вещь против 1000 разных вещей. Работа под блокировкой
+ * (проверка пересечений и вставка) имитируется паузой CRITICAL_SECTION.
+ * Запуск: mvn -pl server test -Dtest=ItemLockContentionLoadTest -Dshareit.load-test=true
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "shareit.load-test", matches = "true")
+class ItemLockContentionLoadTest {
+    private static final int THREADS = 64;
+    private static final Duration CRITICAL_SECTION = Duration.ofNanos(50_000);
+    private static final Duration WARM_UP = Duration.ofSeconds(3);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(10);
+
+    @Test
+    void compareThroughputOfOneAndThousandItems() throws Exception {
+        ItemLockManager itemLockManager = new ItemLockManager(1024);
+        run(itemLockManager, 1, WARM_UP);
+        run(itemLockManager, 1000, WARM_UP);
+
+        double single = run(itemLockManager, 1, MEASUREMENT);
+        log.info("1 вещь: {} бронирований/с", String.format("%.0f", single));
+        double many = run(itemLockManager, 1000, MEASUREMENT);
+        log.info("1000 вещей: {} бронирований/с ({}x к одной вещи)",
+                String.format("%.0f", many), String.format("%.2f", many / single));
+        assertTrue(single > 0);
+        assertTrue(many > single);
+    }
+
+    private static double run(ItemLockManager itemLockManager, int items, Duration duration) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        LongAdder completed = new LongAdder();
+        CountDownLatch done = new CountDownLatch(THREADS);
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                executor.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        book(itemLockManager, (long) ThreadLocalRandom.current().nextInt(items) + 1);
+                        completed.increment();
+                    }
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(duration.toSeconds() + 30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        return completed.sum() / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private static void book(ItemLockManager itemLockManager, Long itemId) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemLockManager.lockUntilTransactionEnds(itemId);
+            LockSupport.parkNanos(CRITICAL_SECTION.toNanos());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemLockManagerTest {
+    private final ItemLockManager itemLockManager = new ItemLockManager(1000);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void stripeCountIsRoundedUpToPowerOfTwo() {
+        assertEquals(1024, itemLockManager.stripeCount());
+        assertEquals(1, new ItemLockManager(1).stripeCount());
+        assertEquals(64, new ItemLockManager(64).stripeCount());
+        assertThrows(IllegalArgumentException.class, () -> new ItemLockManager(0));
+    }
+
+    @Test
+    public void sameItemMapsToSameStripe() {
+        assertSame(itemLockManager.stripe(42L), itemLockManager.stripe(42L));
+        assertNotSame(itemLockManager.stripe(1L), itemLockManager.stripe(2L));
+    }
+
+    @Test
+    public void lockIsHeldUntilTransactionCompletes() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        itemLockManager.lockUntilTransactionEnds(1L);
+
+        assertTrue(itemLockManager.stripe(1L).isHeldByCurrentThread());
+        assertFalse(tryLockInOtherThread(1L));
+        assertTrue(tryLockInOtherThread(2L));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertFalse(itemLockManager.stripe(1L).isLocked());
+    }
+
+    @Test
+    public void unlockRunsAfterIndexUpdateRegisteredLater() {
+        TransactionSynchronizationManager.initSynchronization();
+        itemLockManager.lockUntilTransactionEnds(1L);
+        TransactionSynchronization indexUpdate = new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return ItemLockManager.UNLOCK_ORDER - 1;
+            }
+        };
+        TransactionSynchronizationManager.registerSynchronization(indexUpdate);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertSame(indexUpdate, synchronizations.get(0));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertFalse(itemLockManager.stripe(1L).isLocked());
+    }
+
+    @Test
+    public void lockWithoutTransaction() {
+        assertThrows(IllegalStateException.class, () -> itemLockManager.lockUntilTransactionEnds(1L));
+        assertFalse(itemLockManager.stripe(1L).isLocked());
+    }
+
+    private boolean tryLockInOtherThread(Long itemId) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            ReentrantLock lock = itemLockManager.stripe(itemId);
+            boolean locked = lock.tryLock();
+            if (locked) {
+                lock.unlock();
+            }
+            return locked;
+        }).get(1, TimeUnit.SECONDS);
+    }
+
+    private static void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
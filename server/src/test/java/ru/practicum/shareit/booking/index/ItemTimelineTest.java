@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemTimelineTest {
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+    private ItemTimeline timeline;
+
+    @BeforeEach
+    void setUp() {
+        timeline = ItemTimeline.of(List.of(
+                new BookingInterval(2L, 1L, now.plusDays(5), now.plusDays(6)),
+                new BookingInterval(1L, 1L, now.plusDays(1), now.plusDays(3))));
+    }
+
+    @Test
+    public void overlapsWithBookedPeriod() {
+        assertTrue(timeline.overlaps(millis(now.plusDays(2)), millis(now.plusDays(4))));
+        assertTrue(timeline.overlaps(millis(now), millis(now.plusDays(10))));
+        assertTrue(timeline.overlaps(millis(now.plusDays(5).plusHours(1)), millis(now.plusDays(5).plusHours(2))));
+    }
+
+    @Test
+    public void notOverlapsWithFreePeriod() {
+        assertFalse(timeline.overlaps(millis(now), millis(now.plusDays(1))));
+        assertFalse(timeline.overlaps(millis(now.plusDays(3)), millis(now.plusDays(5))));
+        assertFalse(timeline.overlaps(millis(now.plusDays(6)), millis(now.plusDays(7))));
+        assertFalse(ItemTimeline.EMPTY.overlaps(millis(now), millis(now.plusDays(7))));
+    }
+
+    @Test
+    public void overlapsWithLongBookingStartedEarlier() {
+        ItemTimeline updated = timeline.with(3L, millis(now.minusDays(10)), millis(now.plusDays(20)));
+
+        assertEquals(3, updated.size());
+        assertTrue(updated.overlaps(millis(now.plusDays(3)), millis(now.plusDays(5))));
+        assertFalse(timeline.overlaps(millis(now.plusDays(3)), millis(now.plusDays(5))));
+    }
+
+    @Test
+    public void withoutRemovesBooking() {
+        ItemTimeline updated = timeline.without(1L);
+
+        assertEquals(1, updated.size());
+        assertFalse(updated.overlaps(millis(now.plusDays(2)), millis(now.plusDays(4))));
+        assertSame(updated, updated.without(99L));
+    }
+
+    @Test
+    public void withReplacesExistingBooking() {
+        ItemTimeline updated = timeline.with(1L, millis(now.plusDays(10)), millis(now.plusDays(11)));
+
+        assertEquals(2, updated.size());
+        assertFalse(updated.overlaps(millis(now.plusDays(2)), millis(now.plusDays(4))));
+        assertTrue(updated.overlaps(millis(now.plusDays(10)), millis(now.plusDays(12))));
+    }
+
+    @Test
+    public void busySlotsMarksEveryDayTouchedByBooking() {
+        long day = Duration.ofDays(1).toMillis();
+        BitSet busy = timeline.busySlots(millis(now), day, 8);
+
+        assertEquals("{1, 2, 5}", busy.toString());
+        assertEquals("{0}", timeline.busySlots(millis(now.plusDays(2)), day, 2).toString());
+        assertTrue(timeline.busySlots(millis(now.plusDays(3)), day, 2).isEmpty());
+        assertTrue(ItemTimeline.EMPTY.busySlots(millis(now), day, 8).isEmpty());
+    }
+
+    @Test
+    public void busySlotsSplitsPartiallyCoveredHours() {
+        ItemTimeline updated = timeline.with(3L, millis(now.minusMinutes(30)), millis(now.plusMinutes(90)));
+        BitSet busy = updated.busySlots(millis(now.minusHours(1)), Duration.ofHours(1).toMillis(), 4);
+
+        assertEquals("{0, 1, 2}", busy.toString());
+    }
+
+    private long millis(LocalDateTime dateTime) {
+        return BookingIntervalIndex.toEpochMilli(dateTime);
+    }
+}
@@ -0,0 +1,221 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * Находки репозиториев должны ложиться на индексы из миграций. SQL, который генерирует Hibernate,
+ * перехватывается StatementInspector и разбирается через EXPLAIN с теми же параметрами, без подсказок индексов,
+ * на данных с распределением, близким к рабочему. H2, в отличие от PostgreSQL, сам индексирует внешние ключи
+ * и при равной стоимости выбирает эти индексы, поэтому внешние ключи перед проверкой удаляются.
+ * Данные и изменённая схема живут в отдельной базе, а кэш второго уровня, общий для контекстов,
+ * выключен, чтобы не влиять на другие тесты.
+ */
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DataJpaTest(properties = {
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:repository_index",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "ru.practicum.shareit.booking.repository.BookingRepositoryIndexTest$RecordingInspector"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingRepositoryIndexTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 1, 0, 0);
+    private static final int LIMIT = 20;
+    private static final PageRequest BY_START_DESC = PageRequest.of(0, LIMIT, Sort.by("start").descending());
+    private static final PageRequest BY_ID = PageRequest.of(0, LIMIT, Sort.by("id"));
+    private static final PageRequest SEEK = PageRequest.of(0, LIMIT);
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    public static class RecordingInspector implements StatementInspector {
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeAll
+    void fillTables() {
+        jdbcTemplate.queryForList("SELECT TABLE_NAME, CONSTRAINT_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS " +
+                        "WHERE TABLE_SCHEMA = 'PUBLIC' AND CONSTRAINT_TYPE = 'FOREIGN KEY'")
+                .forEach(row -> jdbcTemplate.execute("ALTER TABLE " + row.get("TABLE_NAME") +
+                        " DROP CONSTRAINT " + row.get("CONSTRAINT_NAME")));
+        jdbcTemplate.update("INSERT INTO users (id, name, email) " +
+                "SELECT X, 'user' || X, 'user' || X || '@mail.ru' FROM SYSTEM_RANGE(1, 200)");
+        jdbcTemplate.update("INSERT INTO requests (id, description, requestor_id, created) " +
+                "SELECT X, 'request', MOD(X, 200) + 1, DATEADD('HOUR', X, TIMESTAMP '2030-01-01 00:00:00') " +
+                "FROM SYSTEM_RANGE(1, 2000)");
+        jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id, request_id) " +
+                "SELECT X, 'item', 'description', TRUE, MOD(X, 200) + 1, " +
+                "CASE WHEN MOD(X, 2) = 0 THEN X END FROM SYSTEM_RANGE(1, 2000)");
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, owner_id, status) " +
+                "SELECT X, DATEADD('HOUR', X, TIMESTAMP '2030-01-01 00:00:00'), " +
+                "DATEADD('HOUR', X + 2, TIMESTAMP '2030-01-01 00:00:00'), MOD(X, 2000) + 1, MOD(X * 7, 200) + 1, " +
+                "MOD(MOD(X, 2000) + 1, 200) + 1, " +
+                "CASE MOD(X, 4) WHEN 0 THEN 'WAITING' WHEN 1 THEN 'APPROVED' WHEN 2 THEN 'REJECTED' " +
+                "ELSE 'CANCELED' END FROM SYSTEM_RANGE(1, 20000)");
+        jdbcTemplate.update("INSERT INTO comments (id, text, item_id, author_id, created) " +
+                "SELECT X, 'comment', MOD(X, 2000) + 1, MOD(X, 200) + 1, TIMESTAMP '2030-01-01 00:00:00' " +
+                "FROM SYSTEM_RANGE(1, 5000)");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    Stream<Arguments> finders() {
+        return Stream.of(
+                arguments("findAllByBookerId",
+                        (Runnable) () -> bookingRepository.findAllByBookerId(1L, BY_START_DESC),
+                        new Object[]{1L, LIMIT},
+                        "BOOKINGS_BOOKER_START_IDX: BOOKER_ID = ?1"),
+                arguments("findByBookerIdAndNowBetweenStartAndEnd",
+                        (Runnable) () -> bookingRepository.findByBookerIdAndNowBetweenStartAndEnd(1L, NOW, BY_START_DESC),
+                        new Object[]{1L, NOW, LIMIT},
+                        "BOOKINGS_BOOKER_START_IDX: BOOKER_ID = ?1 AND START_DATE <= ?2"),
+                arguments("findByBookerIdAndStartIsAfter",
+                        (Runnable) () -> bookingRepository.findByBookerIdAndStartIsAfter(1L, NOW, BY_START_DESC),
+                        new Object[]{1L, NOW, LIMIT},
+                        "BOOKINGS_BOOKER_START_IDX: BOOKER_ID = ?1 AND START_DATE > ?2"),
+                arguments("findByBookerIdAndEndIsBefore",
+                        (Runnable) () -> bookingRepository.findByBookerIdAndEndIsBefore(1L, NOW, BY_START_DESC),
+                        new Object[]{1L, NOW, LIMIT},
+                        "BOOKINGS_BOOKER_START_IDX: BOOKER_ID = ?1"),
+                arguments("findByBookerIdAndStatusIs",
+                        (Runnable) () -> bookingRepository.findByBookerIdAndStatusIs(1L, BookingStatus.WAITING,
+                                BY_START_DESC),
+                        new Object[]{1L, "WAITING", LIMIT},
+                        "BOOKINGS_BOOKER_STATUS_START_IDX: BOOKER_ID = ?1 AND STATUS = ?2"),
+                arguments("findBookerBookingsAfter",
+                        (Runnable) () -> bookingRepository.findBookerBookingsAfter(1L, NOW, 5L, SEEK),
+                        new Object[]{1L, NOW, NOW, 5L, LIMIT},
+                        "BOOKINGS_BOOKER_START_IDX: BOOKER_ID = ?1"),
+                arguments("findBookerBookingsByStatusAfter",
+                        (Runnable) () -> bookingRepository.findBookerBookingsByStatusAfter(1L, BookingStatus.WAITING,
+                                NOW, 5L, SEEK),
+                        new Object[]{1L, "WAITING", NOW, NOW, 5L, LIMIT},
+                        "BOOKINGS_BOOKER_STATUS_START_IDX: BOOKER_ID = ?1 AND STATUS = ?2"),
+                arguments("findAllByOwnerId",
+                        (Runnable) () -> bookingRepository.findAllByOwnerId(1L, BY_START_DESC),
+                        new Object[]{1L, LIMIT},
+                        "BOOKINGS_OWNER_START_IDX: OWNER_ID = ?1"),
+                arguments("findAllCurrentOwnerBookings",
+                        (Runnable) () -> bookingRepository.findAllCurrentOwnerBookings(1L, NOW, BY_START_DESC),
+                        new Object[]{1L, NOW, LIMIT},
+                        "BOOKINGS_OWNER_START_IDX: OWNER_ID = ?1 AND START_DATE <= ?2"),
+                arguments("findAllByOwnerIdAndStartIsAfter",
+                        (Runnable) () -> bookingRepository.findAllByOwnerIdAndStartIsAfter(1L, NOW, BY_START_DESC),
+                        new Object[]{1L, NOW, LIMIT},
+                        "BOOKINGS_OWNER_START_IDX: OWNER_ID = ?1 AND START_DATE > ?2"),
+                arguments("findAllByOwnerIdAndStatusIs",
+                        (Runnable) () -> bookingRepository.findAllByOwnerIdAndStatusIs(1L, BookingStatus.WAITING,
+                                BY_START_DESC),
+                        new Object[]{1L, "WAITING", LIMIT},
+                        "BOOKINGS_OWNER_STATUS_START_IDX: OWNER_ID = ?1 AND STATUS = ?2"),
+                arguments("findOwnerBookingsAfter",
+                        (Runnable) () -> bookingRepository.findOwnerBookingsAfter(1L, NOW, 5L, SEEK),
+                        new Object[]{1L, NOW, NOW, 5L, LIMIT},
+                        "BOOKINGS_OWNER_START_IDX: OWNER_ID = ?1"),
+                arguments("findOwnerBookingsByStatusAfter",
+                        (Runnable) () -> bookingRepository.findOwnerBookingsByStatusAfter(1L, BookingStatus.WAITING,
+                                NOW, 5L, SEEK),
+                        new Object[]{1L, "WAITING", NOW, NOW, 5L, LIMIT},
+                        "BOOKINGS_OWNER_STATUS_START_IDX: OWNER_ID = ?1 AND STATUS = ?2"),
+                arguments("findAllByItemIdAndBookerIdAndStatusIsAndEndBefore",
+                        (Runnable) () -> bookingRepository.findAllByItemIdAndBookerIdAndStatusIsAndEndBefore(1L, 1L,
+                                BookingStatus.APPROVED, NOW),
+                        new Object[]{1L, 1L, "APPROVED", NOW},
+                        "BOOKINGS_ITEM_STATUS_START_IDX: ITEM_ID = ?1 AND STATUS = ?3"),
+                arguments("findIntervalsByItemIdAndStatusIn",
+                        (Runnable) () -> bookingRepository.findIntervalsByItemIdAndStatusIn(1L,
+                                List.of(BookingStatus.WAITING, BookingStatus.APPROVED)),
+                        new Object[]{1L, "WAITING", "APPROVED"},
+                        "BOOKINGS_ITEM_STATUS_START_IDX: STATUS IN(?2, ?3) AND ITEM_ID = ?1"),
+                arguments("findLastAndNextApprovedByItemIds",
+                        (Runnable) () -> bookingRepository.findLastAndNextApprovedByItemIds(List.of(1L, 2L), NOW),
+                        new Object[]{1L, 2L, NOW, 1L, 2L, NOW},
+                        "BOOKINGS_ITEM_STATUS_START_IDX: ITEM_ID IN(?1, ?2) AND STATUS = 'APPROVED' " +
+                                "AND START_DATE < ?3"),
+                arguments("ItemRepository.findAllByOwnerId",
+                        (Runnable) () -> itemRepository.findAllByOwnerId(1L, BY_ID),
+                        new Object[]{1L, LIMIT},
+                        "ITEMS_OWNER_IDX: OWNER_ID = ?1"),
+                arguments("ItemRepository.findAllByOwnerIdAndIdGreaterThan",
+                        (Runnable) () -> itemRepository.findAllByOwnerIdAndIdGreaterThan(1L, 5L, BY_ID),
+                        new Object[]{1L, 5L, LIMIT},
+                        "ITEMS_OWNER_IDX: OWNER_ID = ?1 AND ID > ?2"),
+                arguments("ItemRepository.findAllByRequestIdIn",
+                        (Runnable) () -> itemRepository.findAllByRequestIdIn(List.of(2L, 4L)),
+                        new Object[]{2L, 4L},
+                        "ITEMS_REQUEST_IDX: REQUEST_ID IN(?1, ?2)"),
+                arguments("ItemRequestRepository.findAllByRequestorId",
+                        (Runnable) () -> itemRequestRepository.findAllByRequestorId(1L),
+                        new Object[]{1L},
+                        "REQUESTS_REQUESTOR_CREATED_IDX: REQUESTOR_ID = ?1"),
+                arguments("CommentRepository.findAllByItemId",
+                        (Runnable) () -> commentRepository.findAllByItemId(1L),
+                        new Object[]{1L},
+                        "COMMENTS_ITEM_IDX: ITEM_ID = ?1"),
+                arguments("CommentRepository.findAllByItemIn",
+                        (Runnable) () -> commentRepository.findAllByItemIn(List.of(item(1L), item(2L))),
+                        new Object[]{1L, 2L},
+                        "COMMENTS_ITEM_IDX: ITEM_ID IN(?1, ?2)")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("finders")
+    void finderUsesIndexFromMigration(String finder, Runnable call, Object[] params, String indexCondition) {
+        RecordingInspector.STATEMENTS.clear();
+        call.run();
+        assertThat(RecordingInspector.STATEMENTS).as(finder).isNotEmpty();
+        String sql = RecordingInspector.STATEMENTS.get(0);
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, params).replaceAll("\\s+", " ");
+        String index = indexCondition.substring(0, indexCondition.indexOf(':'));
+        int start = plan.indexOf("/* PUBLIC." + index + ":");
+        assertThat(start).as(plan).isNotNegative();
+        String usedIndex = plan.substring(start, plan.indexOf("*/", start));
+
+        assertThat(indexCondition.substring(index.length() + 1).trim().split(" AND "))
+                .allSatisfy(condition -> assertThat(usedIndex).as(plan).contains(condition));
+    }
+
+    private static Item item(Long id) {
+        return Item.builder().id(id).build();
+    }
+}
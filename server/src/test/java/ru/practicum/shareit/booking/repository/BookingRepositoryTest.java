@@ -5,9 +5,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
@@ -17,8 +19,12 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.utils.PageSetup;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -26,8 +32,6 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DataJpaTest
 class BookingRepositoryTest {
-    private static final Sort SORT_BY_START_ASC = Sort.by("start").ascending();
-    private static final Sort SORT_BY_START_DESC = Sort.by("start").descending();
     @Autowired
     private BookingRepository bookingRepository;
     @Autowired
@@ -79,6 +83,7 @@ class BookingRepositoryTest {
                 .end(LocalDateTime.now().plusDays(3))
                 .booker(user)
                 .item(item2)
+                .ownerId(item2.getOwner().getId())
                 .status(BookingStatus.WAITING)
                 .build();
         savedBooking = bookingRepository.save(booking);
@@ -87,6 +92,7 @@ class BookingRepositoryTest {
                 .end(LocalDateTime.now().plusDays(7))
                 .booker(user2)
                 .item(item)
+                .ownerId(item.getOwner().getId())
                 .status(BookingStatus.WAITING)
                 .build();
         savedBooking2 = bookingRepository.save(booking2);
@@ -136,8 +142,8 @@ class BookingRepositoryTest {
     }
 
     @Test
-    public void findAllByItemOwnerId() {
-        assertEquals(List.of(booking2), bookingRepository.findAllByItemOwnerId(item.getOwner().getId(), page).toList());
+    public void findAllByOwnerId() {
+        assertEquals(List.of(booking2), bookingRepository.findAllByOwnerId(item.getOwner().getId(), page).toList());
         assertThat(booking2).hasFieldOrPropertyWithValue("id", booking2.getId());
         assertThat(booking2.getItem()).hasFieldOrPropertyWithValue("id", booking2.getItem().getId());
         assertThat(booking2.getBooker()).hasFieldOrPropertyWithValue("id", booking2.getBooker().getId());
@@ -145,32 +151,29 @@ class BookingRepositoryTest {
         assertThat(booking2).hasFieldOrPropertyWithValue("end", booking2.getEnd());
         assertThat(booking2).hasFieldOrPropertyWithValue("status", booking2.getStatus());
 
-        assertEquals(List.of(), bookingRepository.findAllByItemOwnerId(99L, page).toList());
+        assertEquals(List.of(), bookingRepository.findAllByOwnerId(99L, page).toList());
     }
 
     @Test
-    public void findAllByOwnerAndStatus() {
-        assertEquals(List.of(booking2), bookingRepository.findAllByOwnerAndStatus(item.getOwner().getId(),
-                BookingStatus.WAITING, SORT_BY_START_ASC));
-        assertThat(booking2).hasFieldOrPropertyWithValue("id", booking2.getId());
-        assertThat(booking2.getItem()).hasFieldOrPropertyWithValue("id", booking2.getItem().getId());
-        assertThat(booking2.getBooker()).hasFieldOrPropertyWithValue("id", booking2.getBooker().getId());
-        assertThat(booking2).hasFieldOrPropertyWithValue("start", booking2.getStart());
-        assertThat(booking2).hasFieldOrPropertyWithValue("end", booking2.getEnd());
-        assertThat(booking2).hasFieldOrPropertyWithValue("status", booking2.getStatus());
-
-        assertEquals(List.of(), bookingRepository.findAllByOwnerAndStatus(item.getOwner().getId(),
-                BookingStatus.APPROVED, SORT_BY_START_ASC));
+    public void compareAndSetStatus() {
+        assertEquals(2, bookingRepository.compareAndSetStatus(List.of(savedBooking.getId(), savedBooking2.getId()),
+                BookingStatus.WAITING, BookingStatus.REJECTED));
+        assertEquals(BookingStatus.REJECTED, bookingRepository.validateBooking(savedBooking.getId()).getStatus());
+        assertEquals(BookingStatus.REJECTED, bookingRepository.validateBooking(savedBooking2.getId()).getStatus());
+        assertEquals(0, bookingRepository.compareAndSetStatus(List.of(savedBooking.getId()),
+                BookingStatus.WAITING, BookingStatus.APPROVED));
+        assertEquals(BookingStatus.REJECTED, bookingRepository.validateBooking(savedBooking.getId()).getStatus());
+        assertEquals(0, bookingRepository.compareAndSetStatus(List.of(99L), BookingStatus.WAITING, BookingStatus.APPROVED));
+    }
 
-        booking2.setStatus(BookingStatus.APPROVED);
-        assertEquals(List.of(booking2), bookingRepository.findAllByOwnerAndStatus(item.getOwner().getId(),
-                BookingStatus.APPROVED, SORT_BY_START_ASC));
-        assertThat(booking2).hasFieldOrPropertyWithValue("id", booking2.getId());
-        assertThat(booking2.getItem()).hasFieldOrPropertyWithValue("id", booking2.getItem().getId());
-        assertThat(booking2.getBooker()).hasFieldOrPropertyWithValue("id", booking2.getBooker().getId());
-        assertThat(booking2).hasFieldOrPropertyWithValue("start", booking2.getStart());
-        assertThat(booking2).hasFieldOrPropertyWithValue("end", booking2.getEnd());
-        assertThat(booking2).hasFieldOrPropertyWithValue("status", booking2.getStatus());
+    @Test
+    public void streamAllByOwnerId() {
+        try (Stream<Booking> bookings = bookingRepository.streamAllByOwnerId(item.getOwner().getId())) {
+            assertEquals(List.of(booking2), bookings.collect(Collectors.toList()));
+        }
+        try (Stream<Booking> bookings = bookingRepository.streamAllByOwnerId(99L)) {
+            assertEquals(0, bookings.count());
+        }
     }
 
     @Test
@@ -261,8 +264,8 @@ class BookingRepositoryTest {
     }
 
     @Test
-    public void findAllByItemOwnerIdAndStatusIs() {
-        assertEquals(List.of(booking2), bookingRepository.findAllByItemOwnerIdAndStatusIs(item.getOwner().getId(), BookingStatus.WAITING, page).toList());
+    public void findAllByOwnerIdAndStatusIs() {
+        assertEquals(List.of(booking2), bookingRepository.findAllByOwnerIdAndStatusIs(item.getOwner().getId(), BookingStatus.WAITING, page).toList());
         assertThat(booking2).hasFieldOrPropertyWithValue("id", booking2.getId());
         assertThat(booking2.getItem()).hasFieldOrPropertyWithValue("id", booking2.getItem().getId());
         assertThat(booking2.getBooker()).hasFieldOrPropertyWithValue("id", booking2.getBooker().getId());
@@ -270,11 +273,11 @@ class BookingRepositoryTest {
         assertThat(booking2).hasFieldOrPropertyWithValue("end", booking2.getEnd());
         assertThat(booking2).hasFieldOrPropertyWithValue("status", booking2.getStatus());
 
-        assertEquals(List.of(), bookingRepository.findAllByItemOwnerIdAndStatusIs(item.getOwner().getId(),
+        assertEquals(List.of(), bookingRepository.findAllByOwnerIdAndStatusIs(item.getOwner().getId(),
                 BookingStatus.APPROVED, page).toList());
 
         booking2.setStatus(BookingStatus.APPROVED);
-        assertEquals(List.of(booking2), bookingRepository.findAllByItemOwnerIdAndStatusIs(item.getOwner().getId(),
+        assertEquals(List.of(booking2), bookingRepository.findAllByOwnerIdAndStatusIs(item.getOwner().getId(),
                 BookingStatus.APPROVED, page).toList());
         assertThat(booking2).hasFieldOrPropertyWithValue("id", booking2.getId());
         assertThat(booking2.getItem()).hasFieldOrPropertyWithValue("id", booking2.getItem().getId());
@@ -311,26 +314,78 @@ class BookingRepositoryTest {
     }
 
     @Test
-    public void findFirstByItemIdAndStartBeforeAndStatus() {
-        booking.setStart(LocalDateTime.now().minusDays(2));
-        Optional<Booking> booking = bookingRepository.findFirstByItemIdAndStartBeforeAndStatus(item2.getId(),
-                LocalDateTime.now(), BookingStatus.WAITING, SORT_BY_START_DESC);
-        assertEquals(booking, bookingRepository.findFirstByItemIdAndStartBeforeAndStatus(item2.getId(),
-                LocalDateTime.now(), BookingStatus.WAITING, SORT_BY_START_DESC));
-        assertThat(booking).isPresent();
+    public void findLastAndNextApprovedByItemIds() {
+        booking.setStart(LocalDateTime.now().minusDays(3));
+        booking.setEnd(LocalDateTime.now().minusDays(2));
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.saveAndFlush(booking);
+        Booking nextBooking = bookingRepository.saveAndFlush(Booking.builder()
+                .start(LocalDateTime.now().plusDays(4))
+                .end(LocalDateTime.now().plusDays(6))
+                .booker(user)
+                .item(item2)
+                .ownerId(item2.getOwner().getId())
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        List<ItemBookingView> views = bookingRepository.findLastAndNextApprovedByItemIds(
+                List.of(item.getId(), item2.getId()), LocalDateTime.now());
+        Map<String, ItemBookingView> viewsByKind = views.stream()
+                .collect(Collectors.toMap(ItemBookingView::getKind, Function.identity()));
+
+        assertEquals(2, views.size());
+        assertEquals(booking.getId(), viewsByKind.get(ItemBookingView.LAST).getId());
+        assertEquals(item2.getId(), viewsByKind.get(ItemBookingView.LAST).getItemId());
+        assertEquals(user.getId(), viewsByKind.get(ItemBookingView.LAST).getBookerId());
+        assertEquals(nextBooking.getId(), viewsByKind.get(ItemBookingView.NEXT).getId());
+        assertEquals(item2.getId(), viewsByKind.get(ItemBookingView.NEXT).getItemId());
+        assertEquals(List.of(), bookingRepository.findLastAndNextApprovedByItemIds(List.of(item.getId()),
+                LocalDateTime.now()));
     }
 
     @Test
-    public void findFirstByItemIdAndStartAfterAndStatus() {
-        Optional<Booking> booking = bookingRepository.findFirstByItemIdAndStartAfterAndStatus(item2.getId(),
-                LocalDateTime.now(), BookingStatus.WAITING, SORT_BY_START_DESC);
-        assertEquals(booking, booking);
-        assertThat(booking).isPresent();
+    public void findBookerBookingsAfterSeeksPastTiesOnStart() {
+        LocalDateTime start = booking.getStart().truncatedTo(ChronoUnit.MICROS);
+        booking.setStart(start);
+        bookingRepository.saveAndFlush(booking);
+        Booking sameStart = bookingRepository.save(Booking.builder()
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .booker(user)
+                .item(item2)
+                .ownerId(item2.getOwner().getId())
+                .status(BookingStatus.REJECTED)
+                .build());
+        Booking earlier = bookingRepository.save(Booking.builder()
+                .start(booking.getStart().minusDays(1))
+                .end(booking.getStart())
+                .booker(user)
+                .item(item2)
+                .ownerId(item2.getOwner().getId())
+                .status(BookingStatus.WAITING)
+                .build());
+        Pageable limit = PageRequest.of(0, 1);
+
+        assertEquals(List.of(booking), bookingRepository.findBookerBookingsAfter(user.getId(),
+                start, sameStart.getId(), limit));
+        assertEquals(List.of(booking, earlier), bookingRepository.findBookerBookingsAfter(user.getId(),
+                start, sameStart.getId(), PageRequest.of(0, 5)));
+        assertEquals(List.of(earlier), bookingRepository.findBookerBookingsByStatusAfter(user.getId(),
+                BookingStatus.WAITING, start, booking.getId(), limit));
+        assertEquals(List.of(), bookingRepository.findBookerBookingsAfter(user.getId(),
+                start.minusDays(1), earlier.getId(), limit));
     }
 
     @Test
-    public void findByItemIdAndStatus() {
-        List<Booking> booking = bookingRepository.findByItemIdAndStatus(item2.getId(), BookingStatus.WAITING);
-        assertEquals(booking, booking);
+    public void findOwnerBookingsAfter() {
+        LocalDateTime start = booking.getStart().truncatedTo(ChronoUnit.MICROS);
+        booking.setStart(start);
+        bookingRepository.saveAndFlush(booking);
+        assertEquals(List.of(booking), bookingRepository.findOwnerBookingsAfter(user2.getId(),
+                booking.getStart().plusDays(1), 0L, PageRequest.of(0, 5)));
+        assertEquals(List.of(booking), bookingRepository.findFutureOwnerBookingsAfter(user2.getId(),
+                LocalDateTime.now(), start, booking.getId() + 1, PageRequest.of(0, 5)));
+        assertEquals(List.of(), bookingRepository.findPastOwnerBookingsAfter(user2.getId(),
+                LocalDateTime.now(), start, booking.getId() + 1, PageRequest.of(0, 5)));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.BookingException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Без @Transactional: каждое бронирование фиксируется в своей транзакции, бронирования одной вещи
+ * на пересекающиеся периоды создаются из разных потоков одновременно.
+ */
+@SpringBootTest(properties = {"db.name=test"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingCreationConcurrencyTest {
+    private static final int ROUNDS = 20;
+    private static final int THREADS = 8;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private UserDto owner;
+    private List<UserDto> bookers;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.addUser(UserDto.builder()
+                .name("Owner")
+                .email("creation-owner@gmail.com")
+                .build());
+        bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userService.addUser(UserDto.builder()
+                    .name("Booker" + i)
+                    .email("creation-booker" + i + "@gmail.com")
+                    .build()));
+        }
+        item = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Item name")
+                .description("Item description")
+                .available(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookers.forEach(booker -> userService.removeUserById(booker.getId()));
+        userService.removeUserById(owner.getId());
+    }
+
+    @Test
+    public void concurrentOverlappingBookingsOfOneItemCreateOnlyOne() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                LocalDateTime roundStart = start.plusDays(round * 3L);
+                CountDownLatch ready = new CountDownLatch(THREADS);
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<Boolean>> attempts = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    UserDto booker = bookers.get(i);
+                    LocalDateTime bookingStart = roundStart.plusHours(i);
+                    attempts.add(executor.submit(() -> {
+                        ready.countDown();
+                        go.await();
+                        try {
+                            bookingService.addBooking(BookingCreationDto.builder()
+                                    .itemId(item.getId())
+                                    .start(bookingStart)
+                                    .end(bookingStart.plusDays(1))
+                                    .status(BookingStatus.WAITING)
+                                    .build(), booker.getId());
+                            return true;
+                        } catch (BookingException e) {
+                            return false;
+                        }
+                    }));
+                }
+                assertTrue(ready.await(10, TimeUnit.SECONDS));
+                go.countDown();
+
+                int created = 0;
+                for (Future<Boolean> attempt : attempts) {
+                    if (attempt.get(30, TimeUnit.SECONDS)) {
+                        created++;
+                    }
+                }
+                assertEquals(1, created, "создано бронирований в раунде " + round);
+            }
+            assertEquals(ROUNDS, bookingRepository.findIntervalsByItemIdAndStatusIn(item.getId(),
+                    List.of(BookingStatus.WAITING, BookingStatus.APPROVED)).size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -6,28 +6,41 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.index.ItemLockManager;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.BookingConflictException;
 import ru.practicum.shareit.exceptions.BookingException;
 import ru.practicum.shareit.exceptions.InvalidIdException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.messages.LogMessages;
+import ru.practicum.shareit.user.index.UserIdIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.Cursor;
+import ru.practicum.shareit.utils.CursorPage;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -39,7 +52,13 @@ class BookingServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserIdIndex userIdIndex;
+    @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private ItemLockManager itemLockManager;
     @InjectMocks
     private BookingServiceImpl bookingService;
     private User user;
@@ -72,6 +91,7 @@ class BookingServiceImplTest {
                 .start(LocalDateTime.now().plusDays(1))
                 .end(LocalDateTime.now().plusDays(2))
                 .item(item)
+                .ownerId(item.getOwner().getId())
                 .booker(user2)
                 .status(BookingStatus.WAITING)
                 .build();
@@ -98,6 +118,20 @@ class BookingServiceImplTest {
         verify(userRepository, times(1)).validateUser(user2.getId());
         verify(itemRepository, times(1)).validateItem(item.getId());
         verify(bookingRepository, times(1)).save(booking);
+        verify(bookingIntervalIndex, times(1)).register(booking);
+        verify(itemLockManager, times(1)).lockUntilTransactionEnds(item.getId());
+    }
+
+    @Test
+    public void addBookingWhenOverlaps() {
+        when(userRepository.validateUser(anyLong())).thenReturn(user2);
+        when(itemRepository.validateItem(anyLong())).thenReturn(item);
+        when(bookingIntervalIndex.hasOverlap(item.getId(), bookingCreationDto.getStart(), bookingCreationDto.getEnd()))
+                .thenReturn(true);
+
+        assertThrows(BookingException.class, () -> bookingService.addBooking(bookingCreationDto, user2.getId()));
+        verify(bookingRepository, never()).save(any());
+        verify(bookingIntervalIndex, never()).register(any());
     }
 
     @Test
@@ -111,6 +145,7 @@ class BookingServiceImplTest {
         verify(userRepository, times(1)).validateUser(user2.getId());
         verify(itemRepository, times(1)).validateItem(item.getId());
         verify(bookingRepository, never()).save(booking);
+        verify(itemLockManager, never()).lockUntilTransactionEnds(any());
     }
 
     @Test
@@ -139,19 +174,98 @@ class BookingServiceImplTest {
         long bookingId = booking.getId();
         when(bookingRepository.validateBooking(anyLong())).thenReturn(booking);
         when(userRepository.validateUser(anyLong())).thenReturn(user);
-        Booking exitedBooking = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().plusDays(1))
-                .end(LocalDateTime.now().plusDays(2))
-                .item(item)
-                .booker(user2)
-                .status(BookingStatus.APPROVED)
-                .build();
+        BookingDto expectedBooking = BookingMapper.toBookingDto(booking);
+        expectedBooking.setStatus(BookingStatus.APPROVED);
 
-        when(bookingRepository.save(any())).thenReturn(exitedBooking);
+        when(bookingRepository.compareAndSetStatus(List.of(bookingId), BookingStatus.WAITING, BookingStatus.APPROVED))
+                .thenReturn(1);
         BookingDto actualBooking = bookingService.renewalBooking(bookingId, user.getId(), true);
-        assertEquals(BookingMapper.toBookingDto(exitedBooking), actualBooking);
-        verify(bookingRepository, times(1)).save(booking);
+        assertEquals(expectedBooking, actualBooking);
+        verify(bookingRepository, never()).save(any());
+        verify(bookingIntervalIndex, never()).release(any());
+    }
+
+    @Test
+    public void renewalBookingChangedConcurrently() {
+        long bookingId = booking.getId();
+        when(bookingRepository.validateBooking(anyLong())).thenReturn(booking);
+        when(userRepository.validateUser(anyLong())).thenReturn(user);
+        when(bookingRepository.compareAndSetStatus(List.of(bookingId), BookingStatus.WAITING, BookingStatus.REJECTED))
+                .thenReturn(0);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.renewalBooking(bookingId, user.getId(), false));
+        verify(bookingIntervalIndex, never()).release(any());
+    }
+
+    @Test
+    public void renewalBookingsAppliesDecisionsWithOneUpdatePerStatus() {
+        Booking toReject = ownerBooking(2L, user.getId(), BookingStatus.WAITING);
+        Booking approved = ownerBooking(3L, user.getId(), BookingStatus.APPROVED);
+        Booking foreign = ownerBooking(4L, user2.getId(), BookingStatus.WAITING);
+        when(bookingRepository.findAllById(any())).thenReturn(List.of(booking, toReject, approved, foreign));
+        when(bookingRepository.compareAndSetStatus(anyList(), any(), any()))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        List<BookingDecisionResultDto> results = bookingService.renewalBookings(user.getId(), List.of(
+                new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, false),
+                new BookingDecisionDto(3L, false),
+                new BookingDecisionDto(4L, true),
+                new BookingDecisionDto(99L, true),
+                new BookingDecisionDto(1L, false),
+                new BookingDecisionDto(2L, null)));
+
+        assertEquals(List.of(
+                BookingDecisionResultDto.of(1L, BookingStatus.APPROVED),
+                BookingDecisionResultDto.of(2L, BookingStatus.REJECTED),
+                BookingDecisionResultDto.failed(3L, LogMessages.BOOKING_APPROVED.toString()),
+                BookingDecisionResultDto.failed(4L, LogMessages.BOOKING_INVALID_ID.toString()),
+                BookingDecisionResultDto.failed(99L, LogMessages.NOT_FOUND.toString() + 99L),
+                BookingDecisionResultDto.failed(1L, LogMessages.BOOKING_DECISION_DUPLICATE.toString()),
+                BookingDecisionResultDto.failed(2L, LogMessages.BOOKING_DECISION_NULL.toString())), results);
+        verify(userIdIndex, times(1)).validateUser(user.getId());
+        verify(bookingRepository, times(1)).findAllById(any());
+        verify(bookingRepository, times(1))
+                .compareAndSetStatus(List.of(1L), BookingStatus.WAITING, BookingStatus.APPROVED);
+        verify(bookingRepository, times(1))
+                .compareAndSetStatus(List.of(2L), BookingStatus.WAITING, BookingStatus.REJECTED);
+        verify(bookingIntervalIndex, times(1)).release(toReject);
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    public void renewalBookingsWithEmptyDecision() {
+        when(bookingRepository.findAllById(any())).thenReturn(List.of(booking));
+        when(bookingRepository.compareAndSetStatus(anyList(), any(), any()))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        List<BookingDecisionResultDto> results = bookingService.renewalBookings(user.getId(),
+                Arrays.asList(null, new BookingDecisionDto(1L, true)));
+
+        assertEquals(List.of(
+                BookingDecisionResultDto.failed(null, LogMessages.EMPTY_ITEM.toString()),
+                BookingDecisionResultDto.of(1L, BookingStatus.APPROVED)), results);
+        verify(bookingRepository, times(1)).findAllById(Set.of(1L));
+    }
+
+    @Test
+    public void renewalBookingsOfUnknownUser() {
+        doThrow(new NotFoundException("Объект не найден 99")).when(userIdIndex).validateUser(99L);
+
+        assertThrows(NotFoundException.class, () -> bookingService.renewalBookings(99L,
+                List.of(new BookingDecisionDto(1L, true))));
+        verify(bookingRepository, never()).compareAndSetStatus(any(), any(), any());
+    }
+
+    @Test
+    public void renewalBookingsChangedConcurrently() {
+        Booking second = ownerBooking(2L, user.getId(), BookingStatus.WAITING);
+        when(bookingRepository.findAllById(any())).thenReturn(List.of(booking, second));
+        when(bookingRepository.compareAndSetStatus(List.of(1L, 2L), BookingStatus.WAITING, BookingStatus.APPROVED))
+                .thenReturn(1);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.renewalBookings(user.getId(),
+                List.of(new BookingDecisionDto(1L, true), new BookingDecisionDto(2L, true))));
     }
 
     @Test
@@ -159,19 +273,15 @@ class BookingServiceImplTest {
         long bookingId = booking.getId();
         when(bookingRepository.validateBooking(anyLong())).thenReturn(booking);
         when(userRepository.validateUser(anyLong())).thenReturn(user);
-        Booking exitedBooking = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().plusDays(1))
-                .end(LocalDateTime.now().plusDays(2))
-                .item(item)
-                .booker(user2)
-                .status(BookingStatus.REJECTED)
-                .build();
+        BookingDto expectedBooking = BookingMapper.toBookingDto(booking);
+        expectedBooking.setStatus(BookingStatus.REJECTED);
 
-        when(bookingRepository.save(any())).thenReturn(exitedBooking);
+        when(bookingRepository.compareAndSetStatus(List.of(bookingId), BookingStatus.WAITING, BookingStatus.REJECTED))
+                .thenReturn(1);
         BookingDto actualBooking = bookingService.renewalBooking(bookingId, user.getId(), false);
-        assertEquals(BookingMapper.toBookingDto(exitedBooking), actualBooking);
-        verify(bookingRepository, times(1)).save(booking);
+        assertEquals(expectedBooking, actualBooking);
+        verify(bookingRepository, never()).save(any());
+        verify(bookingIntervalIndex, times(1)).release(booking);
     }
 
     @Test
@@ -229,18 +339,17 @@ class BookingServiceImplTest {
         User booker = user2;
         List<Booking> expectedList = List.of(booking);
         List<BookingDto> bookingDtoList = List.of(BookingMapper.toBookingDto(booking));
-        when(userRepository.validateUser(anyLong())).thenReturn(user2);
-        when(bookingRepository.findAllByBookerId(anyLong(), any(PageRequest.class))).thenReturn(new PageImpl<>(expectedList));
+        when(bookingRepository.findAllByBookerId(anyLong(), any(PageRequest.class))).thenReturn(new SliceImpl<>(expectedList));
         List<BookingDto> actualList = bookingService.getAllUserBookings(booker.getId(), BookingState.ALL, from, size);
         assertEquals(bookingDtoList, actualList);
 
         when(bookingRepository.findByBookerIdAndStatusIs(anyLong(), any(BookingStatus.class), any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(expectedList));
+                .thenReturn(new SliceImpl<>(expectedList));
         actualList = bookingService.getAllUserBookings(booker.getId(), BookingState.WAITING, from, size);
         assertEquals(bookingDtoList, actualList);
 
         when(bookingRepository.findByBookerIdAndStatusIs(anyLong(), any(BookingStatus.class), any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(expectedList));
+                .thenReturn(new SliceImpl<>(expectedList));
         actualList = bookingService.getAllUserBookings(booker.getId(), BookingState.REJECTED, from, size);
         assertEquals(bookingDtoList, actualList);
 
@@ -248,7 +357,7 @@ class BookingServiceImplTest {
         booking.setEnd(LocalDateTime.now().plusHours(5));
         List<BookingDto> bookingDtoList2 = List.of(BookingMapper.toBookingDto(booking));
         when(bookingRepository.findByBookerIdAndNowBetweenStartAndEnd(anyLong(), any(LocalDateTime.class), any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(expectedList));
+                .thenReturn(new SliceImpl<>(expectedList));
         actualList = bookingService.getAllUserBookings(booker.getId(), BookingState.CURRENT, from, size);
         assertEquals(bookingDtoList2, actualList);
 
@@ -256,7 +365,7 @@ class BookingServiceImplTest {
         booking.setEnd(LocalDateTime.now().plusHours(5));
         List<BookingDto> bookingDtoList3 = List.of(BookingMapper.toBookingDto(booking));
         when(bookingRepository.findByBookerIdAndStartIsAfter(anyLong(), any(LocalDateTime.class), any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(expectedList));
+                .thenReturn(new SliceImpl<>(expectedList));
         actualList = bookingService.getAllUserBookings(booker.getId(), BookingState.FUTURE, from, size);
         assertEquals(bookingDtoList3, actualList);
 
@@ -264,17 +373,67 @@ class BookingServiceImplTest {
         booking.setEnd(LocalDateTime.now().plusHours(1));
         List<BookingDto> bookingDtoList4 = List.of(BookingMapper.toBookingDto(booking));
         when(bookingRepository.findByBookerIdAndEndIsBefore(anyLong(), any(LocalDateTime.class), any(PageRequest.class)))
-                .thenReturn(new PageImpl<>(expectedList));
+                .thenReturn(new SliceImpl<>(expectedList));
         actualList = bookingService.getAllUserBookings(booker.getId(), BookingState.PAST, from, size);
         assertEquals(bookingDtoList4, actualList);
     }
 
+    @Test
+    public void getAllUserBookingsByCursor() {
+        int size = 1;
+        booking.setStart(booking.getStart().truncatedTo(ChronoUnit.MICROS));
+        List<Booking> expectedList = List.of(booking, ownerBooking(2L, user.getId(), BookingStatus.WAITING));
+        when(bookingRepository.findAllByBookerId(anyLong(), any(PageRequest.class))).thenReturn(new SliceImpl<>(expectedList));
+        CursorPage<BookingDto> firstPage = bookingService.getAllUserBookingsByCursor(user2.getId(), BookingState.ALL,
+                "", size);
+        assertEquals(List.of(BookingMapper.toBookingDto(booking)), firstPage.getContent());
+        assertEquals(Cursor.encode(booking.getStart(), booking.getId()), firstPage.getNext());
+
+        when(bookingRepository.findBookerBookingsAfter(user2.getId(), booking.getStart(), booking.getId(),
+                PageRequest.of(0, size + 1))).thenReturn(List.of());
+        CursorPage<BookingDto> lastPage = bookingService.getAllUserBookingsByCursor(user2.getId(), BookingState.ALL,
+                firstPage.getNext(), size);
+        assertEquals(List.of(), lastPage.getContent());
+        assertNull(lastPage.getNext());
+    }
+
+    @Test
+    public void getAllUserBookingsByCursorWithExactlyFullLastPage() {
+        int size = 1;
+        when(bookingRepository.findAllByBookerId(eq(user2.getId()),
+                argThat((PageRequest page) -> page.getPageSize() == size + 1)))
+                .thenReturn(new SliceImpl<>(List.of(booking)));
+
+        CursorPage<BookingDto> page = bookingService.getAllUserBookingsByCursor(user2.getId(), BookingState.ALL,
+                "", size);
+
+        assertEquals(List.of(BookingMapper.toBookingDto(booking)), page.getContent());
+        assertNull(page.getNext());
+    }
+
+    @Test
+    public void getOwnerAllItemBookingsByCursorWithStatus() {
+        booking.setStart(booking.getStart().truncatedTo(ChronoUnit.MICROS));
+        String cursor = Cursor.encode(booking.getStart(), booking.getId());
+        when(bookingRepository.findOwnerBookingsByStatusAfter(user.getId(), BookingStatus.WAITING,
+                booking.getStart(), booking.getId(), PageRequest.of(0, 6))).thenReturn(List.of(booking));
+        CursorPage<BookingDto> page = bookingService.getOwnerAllItemBookingsByCursor(user.getId(), BookingState.WAITING,
+                cursor, 5);
+        assertEquals(List.of(BookingMapper.toBookingDto(booking)), page.getContent());
+        assertNull(page.getNext());
+    }
+
+    @Test
+    public void getAllUserBookingsByInvalidCursor() {
+        assertThrows(ValidationException.class, () -> bookingService.getAllUserBookingsByCursor(user2.getId(),
+                BookingState.ALL, "not a cursor", 5));
+    }
+
     @Test
     void getAllByBookerWithWrongStatus() {
         int from = 0;
         int size = 5;
         String bookingStatus = "UNSUPPORTED_STATUS";
-        when(userRepository.validateUser(anyLong())).thenReturn(user2);
         BookingException ex = assertThrows(BookingException.class, () -> bookingService.getAllUserBookings(user2.getId(),
                 BookingState.valueOf("UNSUPPORTED_STATUS"), from, size));
         assertEquals("Unknown state: " + bookingStatus, ex.getMessage());
@@ -287,18 +446,17 @@ class BookingServiceImplTest {
         User owner = user;
         List<Booking> expectedList = List.of(booking);
         List<BookingDto> bookingDtoList = List.of(BookingMapper.toBookingDto(booking));
-        when(userRepository.validateUser(anyLong())).thenReturn(user);
-        when(bookingRepository.findAllByItemOwnerId(anyLong(), any(PageRequest.class))).thenReturn(new PageImpl<>(expectedList));
+        when(bookingRepository.findAllByOwnerId(anyLong(), any(PageRequest.class))).thenReturn(new SliceImpl<>(expectedList));
         List<BookingDto> actualList = bookingService.getOwnerAllItemBookings(owner.getId(), BookingState.ALL, from, size);
         assertEquals(bookingDtoList, actualList);
 
-        when(bookingRepository.findAllByItemOwnerIdAndStatusIs(anyLong(), any(BookingStatus.class),
-                any(PageRequest.class))).thenReturn(new PageImpl<>(expectedList));
+        when(bookingRepository.findAllByOwnerIdAndStatusIs(anyLong(), any(BookingStatus.class),
+                any(PageRequest.class))).thenReturn(new SliceImpl<>(expectedList));
         actualList = bookingService.getOwnerAllItemBookings(owner.getId(), BookingState.WAITING, from, size);
         assertEquals(bookingDtoList, actualList);
 
-        when(bookingRepository.findAllByItemOwnerIdAndStatusIs(anyLong(), any(BookingStatus.class),
-                any(PageRequest.class))).thenReturn(new PageImpl<>(expectedList));
+        when(bookingRepository.findAllByOwnerIdAndStatusIs(anyLong(), any(BookingStatus.class),
+                any(PageRequest.class))).thenReturn(new SliceImpl<>(expectedList));
         actualList = bookingService.getOwnerAllItemBookings(owner.getId(), BookingState.REJECTED, from, size);
         assertEquals(bookingDtoList, actualList);
 
@@ -306,23 +464,23 @@ class BookingServiceImplTest {
         booking.setEnd(LocalDateTime.now().plusHours(5));
         List<BookingDto> bookingDtoList2 = List.of(BookingMapper.toBookingDto(booking));
         when(bookingRepository.findAllCurrentOwnerBookings(anyLong(), any(LocalDateTime.class),
-                any(PageRequest.class))).thenReturn(new PageImpl<>(expectedList));
+                any(PageRequest.class))).thenReturn(new SliceImpl<>(expectedList));
         actualList = bookingService.getOwnerAllItemBookings(owner.getId(), BookingState.CURRENT, from, size);
         assertEquals(bookingDtoList2, actualList);
 
         booking.setStart(LocalDateTime.now().plusHours(1));
         booking.setEnd(LocalDateTime.now().plusHours(5));
         List<BookingDto> bookingDtoList3 = List.of(BookingMapper.toBookingDto(booking));
-        when(bookingRepository.findAllByItemOwnerIdAndStartIsAfter(anyLong(), any(LocalDateTime.class),
-                any(PageRequest.class))).thenReturn(new PageImpl<>(expectedList));
+        when(bookingRepository.findAllByOwnerIdAndStartIsAfter(anyLong(), any(LocalDateTime.class),
+                any(PageRequest.class))).thenReturn(new SliceImpl<>(expectedList));
         actualList = bookingService.getOwnerAllItemBookings(owner.getId(), BookingState.FUTURE, from, size);
         assertEquals(bookingDtoList3, actualList);
 
         booking.setStart(LocalDateTime.now().minusHours(5));
         booking.setEnd(LocalDateTime.now().minusHours(1));
         List<BookingDto> bookingDtoList4 = List.of(BookingMapper.toBookingDto(booking));
-        when(bookingRepository.findAllByItemOwnerIdAndEndIsBefore(anyLong(), any(LocalDateTime.class),
-                any(PageRequest.class))).thenReturn(new PageImpl<>(expectedList));
+        when(bookingRepository.findAllByOwnerIdAndEndIsBefore(anyLong(), any(LocalDateTime.class),
+                any(PageRequest.class))).thenReturn(new SliceImpl<>(expectedList));
         actualList = bookingService.getOwnerAllItemBookings(owner.getId(), BookingState.PAST, from, size);
         assertEquals(bookingDtoList4, actualList);
     }
@@ -332,9 +490,20 @@ class BookingServiceImplTest {
         int from = 0;
         int size = 5;
         String bookingStatus = "UNSUPPORTED_STATUS";
-        when(userRepository.validateUser(anyLong())).thenReturn(user);
         BookingException ex = assertThrows(BookingException.class, () -> bookingService.getOwnerAllItemBookings(user.getId(),
                 BookingState.valueOf("UNSUPPORTED_STATUS"), from, size));
         assertEquals("Unknown state: " + bookingStatus, ex.getMessage());
     }
-}
\ No newline at end of file
+
+    private Booking ownerBooking(Long id, Long ownerId, BookingStatus status) {
+        return Booking.builder()
+                .id(id)
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(item)
+                .ownerId(ownerId)
+                .booker(user2)
+                .status(status)
+                .build();
+    }
+}
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
@@ -17,13 +21,16 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Transactional
-@SpringBootTest(properties = {"db.name=test"})
+@SpringBootTest(properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true"})
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 class BookingServiceIntegrationTest {
     private LocalDateTime now = LocalDateTime.now();
@@ -31,6 +38,7 @@ class BookingServiceIntegrationTest {
     private final BookingService bookingService;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
     private User user;
     private User savedUser;
     private User user2;
@@ -71,6 +79,7 @@ class BookingServiceIntegrationTest {
                 .start(now.plusDays(1))
                 .end(now.plusDays(2))
                 .item(savedItem)
+                .ownerId(savedItem.getOwner().getId())
                 .booker(savedUser2)
                 .status(BookingStatus.APPROVED)
                 .build();
@@ -86,6 +95,7 @@ class BookingServiceIntegrationTest {
                 .start(now.minusDays(3))
                 .end(now.minusDays(5))
                 .item(savedItem)
+                .ownerId(savedItem.getOwner().getId())
                 .booker(savedUser2)
                 .status(BookingStatus.APPROVED)
                 .build();
@@ -113,4 +123,46 @@ class BookingServiceIntegrationTest {
         assertEquals(savedBooking2.getStart(), bookingDtoList.get(1).getStart());
         assertEquals(savedBooking2.getEnd(), bookingDtoList.get(1).getEnd());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void slicedFinderSkipsCountQuery() {
+        PageRequest secondPage = PageRequest.of(1, 1, Sort.by("start").descending());
+        long sliceStatements = countStatements(() -> bookingRepository.findAllByOwnerId(savedUser.getId(),
+                secondPage));
+        long pageStatements = countStatements(() -> bookingRepository.findAll(secondPage));
+
+        assertEquals(1, sliceStatements);
+        assertEquals(2, pageStatements);
+    }
+
+    @Test
+    public void getOwnerAllItemBookingsRunsNoCountQuery() {
+        bookingRepository.save(Booking.builder()
+                .start(now.plusDays(3))
+                .end(now.plusDays(4))
+                .item(savedItem)
+                .ownerId(savedItem.getOwner().getId())
+                .booker(savedUser2)
+                .status(BookingStatus.WAITING)
+                .build());
+        countStatements(() -> assertEquals(1, bookingService.getOwnerAllItemBookings(savedUser.getId(),
+                BookingState.ALL, 1, 1).size()));
+
+        assertTrue(Arrays.stream(statistics().getQueries())
+                .filter(query -> query.contains("Booking"))
+                .noneMatch(query -> query.toLowerCase().contains("count(")));
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.BookingConflictException;
+import ru.practicum.shareit.exceptions.BookingException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Без @Transactional: каждое решение владельца фиксируется в своей транзакции,
+ * подтверждения и отклонения одного бронирования идут из разных потоков одновременно.
+ */
+@SpringBootTest(properties = {"db.name=test"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingStatusConcurrencyTest {
+    private static final int BOOKINGS = 20;
+    private static final int THREADS_PER_BOOKING = 8;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private UserDto owner;
+    private UserDto booker;
+    private List<Long> bookingIds;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.addUser(UserDto.builder()
+                .name("Owner")
+                .email("concurrent-owner@gmail.com")
+                .build());
+        booker = userService.addUser(UserDto.builder()
+                .name("Booker")
+                .email("concurrent-booker@gmail.com")
+                .build());
+        ItemDto item = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Item name")
+                .description("Item description")
+                .available(true)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        bookingIds = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            BookingDto booking = bookingService.addBooking(BookingCreationDto.builder()
+                    .itemId(item.getId())
+                    .start(start.plusDays(i * 2L))
+                    .end(start.plusDays(i * 2L + 1))
+                    .status(BookingStatus.WAITING)
+                    .build(), booker.getId());
+            bookingIds.add(booking.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.removeUserById(booker.getId());
+        userService.removeUserById(owner.getId());
+    }
+
+    @Test
+    public void concurrentDecisionsLeaveBookingWaitingOnlyOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS_PER_BOOKING);
+        try {
+            for (Long bookingId : bookingIds) {
+                CountDownLatch ready = new CountDownLatch(THREADS_PER_BOOKING);
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<BookingStatus>> decisions = new ArrayList<>();
+                for (int i = 0; i < THREADS_PER_BOOKING; i++) {
+                    boolean approved = i % 2 == 0;
+                    decisions.add(executor.submit(() -> {
+                        ready.countDown();
+                        go.await();
+                        try {
+                            return bookingService.renewalBooking(bookingId, owner.getId(), approved).getStatus();
+                        } catch (BookingConflictException | BookingException e) {
+                            return null;
+                        }
+                    }));
+                }
+                assertTrue(ready.await(10, TimeUnit.SECONDS));
+                go.countDown();
+
+                int approvals = 0;
+                int rejections = 0;
+                for (Future<BookingStatus> decision : decisions) {
+                    BookingStatus status = decision.get(30, TimeUnit.SECONDS);
+                    if (status == BookingStatus.APPROVED) {
+                        approvals++;
+                    } else if (status == BookingStatus.REJECTED) {
+                        rejections++;
+                    }
+                }
+                BookingStatus stored = bookingRepository.validateBooking(bookingId).getStatus();
+                assertTrue(approvals <= 1, "подтверждений бронирования " + bookingId + ": " + approvals);
+                assertTrue(approvals + rejections >= 1, "ни одно решение по бронированию " + bookingId + " не прошло");
+                if (approvals == 1) {
+                    assertEquals(0, rejections, "бронирование " + bookingId + " и подтверждено, и отклонено");
+                    assertEquals(BookingStatus.APPROVED, stored);
+                } else {
+                    assertEquals(BookingStatus.REJECTED, stored);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingTimelineServiceImplTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    @InjectMocks
+    private BookingTimelineServiceImpl bookingTimelineService;
+    private ItemDto itemDto;
+    private ItemDto itemDto2;
+
+    @BeforeEach
+    void setUp() {
+        itemDto = ItemDto.builder()
+                .id(1L)
+                .name("Item name")
+                .description("Item description")
+                .available(true)
+                .build();
+        itemDto2 = ItemDto.builder()
+                .id(2L)
+                .name("Item2 name")
+                .description("Item2 description")
+                .available(true)
+                .build();
+    }
+
+    @Test
+    public void setLastAndNextBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.findLastAndNextApprovedByItemIds(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(
+                        view(ItemBookingView.LAST, 10L, 1L, now.minusDays(3)),
+                        view(ItemBookingView.NEXT, 11L, 1L, now.plusDays(1)),
+                        view(ItemBookingView.NEXT, 12L, 2L, now.plusDays(2))));
+
+        bookingTimelineService.setLastAndNextBookings(List.of(itemDto, itemDto2));
+
+        assertEquals(10L, itemDto.getLastBooking().getId());
+        assertEquals(11L, itemDto.getNextBooking().getId());
+        assertNull(itemDto2.getLastBooking());
+        assertEquals(12L, itemDto2.getNextBooking().getId());
+        assertEquals(now.plusDays(2), itemDto2.getNextBooking().getStart());
+        verify(bookingRepository, times(1)).findLastAndNextApprovedByItemIds(eq(Set.of(1L, 2L)),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    public void setLastAndNextBookingsWithoutItems() {
+        bookingTimelineService.setLastAndNextBookings(List.of());
+
+        verify(bookingRepository, never()).findLastAndNextApprovedByItemIds(anyCollection(), any(LocalDateTime.class));
+    }
+
+    private static ItemBookingView view(String kind, Long id, Long itemId, LocalDateTime start) {
+        return new ItemBookingView() {
+            @Override
+            public String getKind() {
+                return kind;
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return 3L;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return start.plusDays(1);
+            }
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Без @Transactional: кэш второго уровня наполняется и сбрасывается только при фиксации транзакций.
+ */
+@SpringBootTest(properties = {"db.name=test"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class EntityCacheIntegrationTest {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private UserDto user;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        user = userService.addUser(UserDto.builder()
+                .name("Name")
+                .email("cached@gmail.com")
+                .build());
+        item = itemService.addItem(user.getId(), ItemDto.builder()
+                .name("Item name")
+                .description("Item description")
+                .available(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (userRepository.existsById(user.getId())) {
+            userService.removeUserById(user.getId());
+        }
+    }
+
+    @Test
+    public void validateLookupsAreServedFromCache() {
+        userRepository.validateUser(user.getId());
+        itemRepository.validateItem(item.getId());
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        userRepository.validateUser(user.getId());
+        itemRepository.validateItem(item.getId());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("users").getHitCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("items").getHitCount());
+    }
+
+    @Test
+    public void renewalUserAndItemRefreshCachedEntries() {
+        userRepository.validateUser(user.getId());
+        itemRepository.validateItem(item.getId());
+
+        userService.renewalUser(UserDto.builder().name("Updated").build(), user.getId());
+        itemService.renewalItem(item.getId(), ItemDto.builder().name("Updated item").build(), user.getId());
+
+        assertEquals("Updated", userRepository.validateUser(user.getId()).getName());
+        assertEquals("Updated item", itemRepository.validateItem(item.getId()).getName());
+    }
+
+    @Test
+    public void removeUserByIdEvictsCascadedItems() {
+        itemRepository.validateItem(item.getId());
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+
+        userService.removeUserById(user.getId());
+
+        assertFalse(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+        assertThrows(NotFoundException.class, () -> userRepository.validateUser(user.getId()));
+        assertThrows(NotFoundException.class, () -> itemRepository.validateItem(item.getId()));
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
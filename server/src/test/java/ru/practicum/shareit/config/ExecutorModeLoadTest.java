@@ -0,0 +1,111 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Пропускная способность сервера при 2000 одновременных клиентов: пул платформенных потоков Tomcat
+ * против виртуального потока на запрос. Нагрузка - GET /bookings/owner, каждый запрос идёт в БД.
+ * Запуск: mvn -pl server test -Dtest=ExecutorModeLoadTest -Dshareit.load-test=true,
+ * режим virtual измеряется только на Java 21+.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "shareit.load-test", matches = "true")
+class ExecutorModeLoadTest {
+    private static final int CLIENTS = 2000;
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+
+    @Test
+    void compareThroughputOfPlatformAndVirtualThreads() {
+        double platform = measure("platform");
+        log.info("platform: {} запросов/с", String.format("%.0f", platform));
+        assertTrue(platform > 0);
+
+        Assumptions.assumeTrue(Runtime.version().feature() >= 21, "виртуальные потоки доступны с Java 21");
+        double virtual = measure("virtual");
+        log.info("virtual: {} запросов/с ({}x к platform)",
+                String.format("%.0f", virtual), String.format("%.2f", virtual / platform));
+        assertTrue(virtual > 0);
+    }
+
+    private double measure(String mode) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItServer.class).run(
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--server.tomcat.max-connections=" + (CLIENTS * 2),
+                "--shareit.executor.mode=" + mode,
+                "--logging.level.com.zaxxer.hikari=WARN")) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            HttpResponse<String> created = client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"load\",\"email\":\"load@test.ru\"}"))
+                            .build(), HttpResponse.BodyHandlers.ofString())
+                    .join();
+            assertEquals(200, created.statusCode());
+
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/bookings/owner?state=ALL"))
+                    .header("X-Sharer-User-Id", "1")
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            run(client, request, WARM_UP, new LongAdder(), new LongAdder());
+
+            LongAdder completed = new LongAdder();
+            LongAdder failed = new LongAdder();
+            long started = System.nanoTime();
+            run(client, request, MEASUREMENT, completed, failed);
+            double seconds = (System.nanoTime() - started) / 1e9;
+            log.info("{}: {} ответов, {} ошибок за {} с", mode, completed.sum(), failed.sum(), String.format("%.1f", seconds));
+            return completed.sum() / seconds;
+        }
+    }
+
+    private static void run(HttpClient client, HttpRequest request, Duration duration,
+                            LongAdder completed, LongAdder failed) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        CompletableFuture<?>[] clients = new CompletableFuture<?>[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = loop(client, request, deadline, completed, failed);
+        }
+        CompletableFuture.allOf(clients).join();
+    }
+
+    private static CompletableFuture<Void> loop(HttpClient client, HttpRequest request, long deadline,
+                                                LongAdder completed, LongAdder failed) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, e) -> {
+                    if (e == null && response.statusCode() == 200) {
+                        completed.increment();
+                    } else {
+                        failed.increment();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> loop(client, request, deadline, completed, failed));
+    }
+}
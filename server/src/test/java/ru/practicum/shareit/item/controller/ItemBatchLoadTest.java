@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Скорость создания вещей: по одной через POST /items против пакетов через POST /items/batch.
+ * Запуск: mvn -pl server test -Dtest=ItemBatchLoadTest -Dshareit.load-test=true
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "shareit.load-test", matches = "true")
+class ItemBatchLoadTest {
+    private static final int ROWS = 20_000;
+    private static final int BATCH_SIZE = 1000;
+    private static final int WARM_UP_ROWS = 2000;
+
+    @Test
+    void compareSingleAndBatchInsertRate() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItServer.class).run(
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--logging.level.com.zaxxer.hikari=WARN")) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port;
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            HttpResponse<String> created = send(client, HttpRequest.newBuilder(URI.create(baseUrl + "/users"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"load\",\"email\":\"load@test.ru\"}"))
+                    .build());
+            assertEquals(200, created.statusCode());
+
+            insertOneByOne(client, baseUrl, WARM_UP_ROWS);
+            insertInBatches(client, baseUrl, WARM_UP_ROWS);
+
+            double single = rate(() -> insertOneByOne(client, baseUrl, ROWS));
+            log.info("POST /items: {} строк/с", String.format("%.0f", single));
+            double batch = rate(() -> insertInBatches(client, baseUrl, ROWS));
+            log.info("POST /items/batch по {} строк: {} строк/с ({}x к одиночным)", BATCH_SIZE,
+                    String.format("%.0f", batch), String.format("%.2f", batch / single));
+            assertTrue(single > 0);
+            assertTrue(batch > 0);
+        }
+    }
+
+    private static double rate(Runnable insert) {
+        long started = System.nanoTime();
+        insert.run();
+        return ROWS / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private static void insertOneByOne(HttpClient client, String baseUrl, int rows) {
+        for (int i = 0; i < rows; i++) {
+            HttpResponse<String> response = send(client, post(baseUrl + "/items", item(i)));
+            assertEquals(200, response.statusCode());
+        }
+    }
+
+    private static void insertInBatches(HttpClient client, String baseUrl, int rows) {
+        for (int from = 0; from < rows; from += BATCH_SIZE) {
+            String body = IntStream.range(from, Math.min(from + BATCH_SIZE, rows))
+                    .mapToObj(ItemBatchLoadTest::item)
+                    .collect(Collectors.joining(",", "[", "]"));
+            HttpResponse<String> response = send(client, post(baseUrl + "/items/batch", body));
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().endsWith("\"errors\":[]}"));
+        }
+    }
+
+    private static String item(int number) {
+        return "{\"name\":\"Вещь " + number + "\",\"description\":\"Описание вещи " + number + "\",\"available\":true}";
+    }
+
+    private static HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .header("X-Sharer-User-Id", "1")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpResponse<String> send(HttpClient client, HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).join();
+    }
+}
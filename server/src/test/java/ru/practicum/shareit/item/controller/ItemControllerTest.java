@@ -11,11 +11,16 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.AvailabilityGranularity;
+import ru.practicum.shareit.item.dto.AvailabilityRangeDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchErrorDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -62,6 +67,24 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(itemDto.getAvailable())));
     }
 
+    @Test
+    public void shouldCreateItemsBatch() throws Exception {
+        ItemBatchResultDto result = new ItemBatchResultDto(List.of(itemDto),
+                List.of(new ItemBatchErrorDto(1, "Имя не может быть пустым")));
+        when(itemService.addItems(anyLong(), anyList())).thenReturn(result);
+        mockMvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(objectMapper.writeValueAsString(List.of(itemDto, ItemDto.builder().build())))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", hasSize(1)))
+                .andExpect(jsonPath("$.created[0].name", is(itemDto.getName())))
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0].index", is(1)));
+    }
+
     @Test
     public void shouldNotCreateItemWithEmptyName() throws Exception {
         when(itemService.addItem(anyLong(),any())).thenThrow(new ValidationException("Имя не может быть пустым"));
@@ -154,9 +177,40 @@ class ItemControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void getItemAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemService.getAvailability(1L, from, from.plusDays(3), AvailabilityGranularity.DAY)).thenReturn(List.of(
+                new AvailabilityRangeDto(from, from.plusDays(1), true),
+                new AvailabilityRangeDto(from.plusDays(1), from.plusDays(3), false)));
+        mockMvc.perform(get("/items/{itemId}/availability", 1L)
+                        .header("X-Sharer-User-Id", 1)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-04T00:00:00")
+                        .param("granularity", "DAY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].free", is(true)))
+                .andExpect(jsonPath("$[1].free", is(false)));
+    }
+
+    @Test
+    public void searchAvailableItem() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 4, 0, 0);
+        when(itemService.searchAvailable("name", start, start.plusDays(2), 0, 10)).thenReturn(List.of(itemDto));
+        mockMvc.perform(get("/items/search/available")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("text", "name")
+                        .param("start", "2030-01-04T00:00:00")
+                        .param("end", "2030-01-06T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is(itemDto.getName())));
+    }
+
     @Test
     public void searchItemByText() throws Exception {
-        when(itemService.search(anyString(), anyInt(), anyInt())).thenReturn(List.of(itemDto));
+        when(itemService.search(anyString(), anyInt(), anyInt(), anyBoolean())).thenReturn(List.of(itemDto));
         mockMvc.perform(get("/items/search")
                         .header("X-Sharer-User-Id", 1)
                         .param("text", "name")
@@ -6,7 +6,6 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import ru.practicum.shareit.booking.BookingStatus;
-import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -67,14 +66,13 @@ class CommentRepositoryTest {
         savedItem = itemRepository.save(item);
         itemDto = ItemDto.builder()
                 .id(item.getId())
-                .lastBooking(BookingMapper.toBookingShortDto(booking))
-                .nextBooking(BookingMapper.toBookingShortDto(booking2))
                 .build();
         booking = Booking.builder()
                 .start(LocalDateTime.now().plusDays(2))
                 .end(LocalDateTime.now().plusDays(3))
                 .booker(user2)
                 .item(item)
+                .ownerId(item.getOwner().getId())
                 .status(BookingStatus.WAITING)
                 .build();
         savedBooking = bookingRepository.save(booking);
@@ -83,6 +81,7 @@ class CommentRepositoryTest {
                 .end(LocalDateTime.now().plusDays(7))
                 .booker(user2)
                 .item(item)
+                .ownerId(item.getOwner().getId())
                 .status(BookingStatus.WAITING)
                 .build();
         savedBooking2 = bookingRepository.save(booking2);
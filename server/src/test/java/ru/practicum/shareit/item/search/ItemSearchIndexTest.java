@@ -0,0 +1,221 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserRemovedEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(itemRepository.findAllDocuments()).thenReturn(List.of(
+                new ItemDocument(1L, "Дрель", "Простая дрель", true, 1L, null),
+                new ItemDocument(2L, "Отвертка", "Аккумуляторная отвертка", true, 1L, null),
+                new ItemDocument(3L, "Клей Момент", "Тюбик суперклея", true, 2L, null),
+                new ItemDocument(4L, "Дрель ударная", "Сломана", false, 2L, null),
+                new ItemDocument(5L, "Перфоратор", "Мощнее, чем дрель", true, 2L, 1L)));
+        itemSearchIndex.load();
+    }
+
+    @Test
+    public void searchBySubstringIgnoringCase() {
+        assertEquals(List.of(1L, 5L), ids(itemSearchIndex.search("дРеЛь", 0, 10)));
+        assertEquals(List.of(2L), ids(itemSearchIndex.search("аккУМ", 0, 10)));
+        assertEquals(List.of(3L), ids(itemSearchIndex.search("суперклея", 0, 10)));
+    }
+
+    @Test
+    public void searchReturnsOnlyAvailableItems() {
+        assertEquals(List.of(), ids(itemSearchIndex.search("ударная", 0, 10)));
+    }
+
+    @Test
+    public void searchWithShortQuery() {
+        assertEquals(List.of(1L, 5L), ids(itemSearchIndex.search("ре", 0, 10)));
+    }
+
+    @Test
+    public void searchWithUnknownText() {
+        assertTrue(itemSearchIndex.search("пылесос", 0, 10).isEmpty());
+    }
+
+    @Test
+    public void searchWithPaging() {
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("дрель", 0, 1)));
+        assertEquals(List.of(5L), ids(itemSearchIndex.search("дрель", 1, 1)));
+        assertEquals(List.of(), ids(itemSearchIndex.search("дрель", 2, 1)));
+    }
+
+    @Test
+    public void searchWithFilterStopsWhenPageIsFull() {
+        AtomicInteger checked = new AtomicInteger();
+        assertEquals(List.of(5L), ids(itemSearchIndex.search("дрель", 0, 10, id -> id != 1L)));
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("дрель", 0, 1, id -> checked.incrementAndGet() > 0)));
+        assertEquals(1, checked.get());
+    }
+
+    @Test
+    public void searchFilterRunsWithoutReadLock() {
+        List<ItemDocument> found = assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                itemSearchIndex.search("дрель", 0, 10, id -> {
+                    itemSearchIndex.index(screwdriver());
+                    return true;
+                }));
+
+        assertEquals(List.of(1L, 5L), ids(found));
+        assertEquals(List.of(6L), ids(itemSearchIndex.search("шуруп", 0, 10)));
+    }
+
+    @Test
+    public void searchWithShortQueryReadsCandidatesInChunks() {
+        User owner = User.builder().id(3L).build();
+        for (long id = 101; id <= 100 + 3 * ItemSearchIndex.CHUNK_SIZE; id++) {
+            itemSearchIndex.index(Item.builder().id(id).name("Дрель " + id).description("").available(true)
+                    .owner(owner).build());
+        }
+        // в первую порцию попадают вещи 1, 5 и 101..lastOfFirstChunk
+        long lastOfFirstChunk = 100 + ItemSearchIndex.CHUNK_SIZE - 2;
+        AtomicInteger calls = new AtomicInteger();
+
+        List<ItemDocument> found = itemSearchIndex.search("ре", 0, 1, id -> {
+            if (calls.getAndIncrement() == 0) {
+                itemSearchIndex.index(Item.builder().id(lastOfFirstChunk + 1).name("Пылесос").description("")
+                        .available(true).owner(owner).build());
+            }
+            return id > lastOfFirstChunk;
+        });
+
+        assertEquals(List.of(lastOfFirstChunk + 2), ids(found));
+        assertEquals(ItemSearchIndex.CHUNK_SIZE + 1, calls.get());
+    }
+
+    @Test
+    public void searchRankedPrefersNameAndExactMatches() {
+        assertEquals(List.of(1L, 5L), ids(itemSearchIndex.searchRanked("дрель", 0, 10)));
+        assertEquals(List.of(2L), ids(itemSearchIndex.searchRanked("отвертка", 0, 10)));
+    }
+
+    @Test
+    public void searchRankedWithPaging() {
+        itemSearchIndex.index(Item.builder()
+                .id(6L)
+                .name("Дрель дрель")
+                .description("Дрель")
+                .available(true)
+                .owner(User.builder().id(3L).build())
+                .build());
+
+        assertEquals(List.of(6L, 1L, 5L), ids(itemSearchIndex.searchRanked("дрель", 0, 10)));
+        assertEquals(List.of(6L), ids(itemSearchIndex.searchRanked("дрель", 0, 1)));
+        assertEquals(List.of(1L, 5L), ids(itemSearchIndex.searchRanked("дрель", 1, 2)));
+        assertEquals(List.of(5L), ids(itemSearchIndex.searchRanked("дрель", 2, 2)));
+    }
+
+    @Test
+    public void indexUpdatesRenewedItem() {
+        User owner = User.builder().id(2L).build();
+        itemSearchIndex.index(Item.builder()
+                .id(4L)
+                .name("Дрель ударная")
+                .description("Починена")
+                .available(true)
+                .owner(owner)
+                .build());
+        itemSearchIndex.index(Item.builder()
+                .id(1L)
+                .name("Шуруповерт")
+                .description("Простой")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        assertEquals(List.of(4L, 5L), ids(itemSearchIndex.search("дрель", 0, 10)));
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("шуруп", 0, 10)));
+    }
+
+    @Test
+    public void removeItemsOfRemovedUser() {
+        itemSearchIndex.onUserRemoved(new UserRemovedEvent(2L, List.of(), List.of()));
+
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("дрель", 0, 10)));
+        assertTrue(itemSearchIndex.search("клей", 0, 10).isEmpty());
+    }
+
+    @Test
+    public void removeItemsOfRemovedRequestor() {
+        itemSearchIndex.onUserRemoved(new UserRemovedEvent(4L, List.of(), List.of(5L)));
+
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("дрель", 0, 10)));
+        assertEquals(List.of(2L), ids(itemSearchIndex.search("отвертка", 0, 10)));
+    }
+
+    @Test
+    public void indexInsideTransactionWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemSearchIndex.index(screwdriver());
+            assertTrue(itemSearchIndex.search("шуруп", 0, 10).isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(6L), ids(itemSearchIndex.search("шуруп", 0, 10)));
+    }
+
+    @Test
+    public void indexInsideRolledBackTransactionLeavesNoEntry() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemSearchIndex.index(screwdriver());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(itemSearchIndex.search("шуруп", 0, 10).isEmpty());
+    }
+
+    private List<Long> ids(List<ItemDocument> documents) {
+        return documents.stream()
+                .map(ItemDocument::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static Item screwdriver() {
+        return Item.builder()
+                .id(6L)
+                .name("Шуруповерт")
+                .description("Простой")
+                .available(true)
+                .owner(User.builder().id(1L).build())
+                .build();
+    }
+}
@@ -19,6 +19,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -27,7 +28,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 @SpringBootTest(properties = {"db.name=test"})
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 class ItemServiceImplIntegrationTest {
-    private LocalDateTime now = LocalDateTime.now();
+    private LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     private final UserRepository userRepository;
     private final ItemService itemService;
     private final ItemRepository itemRepository;
@@ -72,6 +73,7 @@ class ItemServiceImplIntegrationTest {
                 .start(now.plusDays(1))
                 .end(now.plusDays(2))
                 .item(savedItem)
+                .ownerId(savedItem.getOwner().getId())
                 .booker(savedUser2)
                 .status(BookingStatus.APPROVED)
                 .build();
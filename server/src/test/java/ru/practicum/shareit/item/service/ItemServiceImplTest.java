@@ -3,40 +3,53 @@ package ru.practicum.shareit.item.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.BookingStatus;
-import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingTimelineService;
 import ru.practicum.shareit.exceptions.IllegalAccessException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.RequestException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilityRangeDto;
+import ru.practicum.shareit.item.AvailabilityGranularity;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemBatchErrorDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemDocument;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.messages.LogMessages;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.index.UserIdIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.utils.PageSetup;
 
+import javax.persistence.EntityManager;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.function.LongPredicate;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -49,11 +62,21 @@ class ItemServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserIdIndex userIdIndex;
+    @Mock
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private BookingTimelineService bookingTimelineService;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private EntityManager entityManager;
     @InjectMocks
     private ItemServiceImpl itemService;
     private User user;
@@ -136,6 +159,7 @@ class ItemServiceImplTest {
         assertNull(actualItemDto.getRequestId());
         verify(userRepository, times(1)).validateUser(userId);
         verify(itemRepository, times(1)).save(any());
+        verify(itemSearchIndex, times(1)).index(item);
         verify(itemRequestRepository, never()).validateItemRequest(1L);
     }
 
@@ -168,13 +192,87 @@ class ItemServiceImplTest {
         verify(itemRepository, times(1)).save(any());
     }
 
+    @Test
+    public void addItemsSavesValidRowsAndReportsInvalidOnes() {
+        ItemDto withRequest = ItemDto.builder()
+                .name("Requested item")
+                .description("Requested item description")
+                .available(true)
+                .requestId(itemRequest.getId())
+                .build();
+        ItemDto withoutName = ItemDto.builder()
+                .description("Item description")
+                .available(true)
+                .build();
+        ItemDto withUnknownRequest = ItemDto.builder()
+                .name("Item name")
+                .description("Item description")
+                .available(false)
+                .requestId(99L)
+                .build();
+        ItemDto withLongName = ItemDto.builder()
+                .name("n".repeat(Item.NAME_LENGTH + 1))
+                .description("Item description")
+                .available(true)
+                .build();
+        ItemDto withLongDescription = ItemDto.builder()
+                .name("Item name")
+                .description("d".repeat(Item.DESCRIPTION_LENGTH + 1))
+                .available(true)
+                .build();
+        when(userRepository.validateUser(user.getId())).thenReturn(user);
+        when(itemRequestRepository.findAllById(any())).thenReturn(List.of(itemRequest));
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ItemBatchResultDto result = itemService.addItems(user.getId(),
+                List.of(itemDto, withoutName, withRequest, withUnknownRequest, withLongName, withLongDescription));
+
+        assertEquals(2, result.getCreated().size());
+        assertEquals("Item name", result.getCreated().get(0).getName());
+        assertEquals(itemRequest.getId(), result.getCreated().get(1).getRequestId());
+        assertEquals(List.of(
+                new ItemBatchErrorDto(1, LogMessages.EMPTY_NAME.toString()),
+                new ItemBatchErrorDto(3, LogMessages.NOT_FOUND.toString() + 99L),
+                new ItemBatchErrorDto(4, LogMessages.NAME_TOO_LONG.toString() + Item.NAME_LENGTH),
+                new ItemBatchErrorDto(5, LogMessages.DESCRIPTION_TOO_LONG.toString() + Item.DESCRIPTION_LENGTH)),
+                result.getErrors());
+        verify(userRepository, times(1)).validateUser(user.getId());
+        verify(itemRequestRepository, times(1)).findAllById(any());
+        verify(itemRequestRepository, never()).validateItemRequest(anyLong());
+        verify(itemRepository, times(1)).saveAll(anyList());
+        verify(itemSearchIndex, times(2)).index(any());
+    }
+
+    @Test
+    public void addItemsFlushesEveryInsertBatch() {
+        List<ItemDto> itemDtos = Collections.nCopies(ItemRepository.INSERT_BATCH_SIZE * 2 + 1, itemDto);
+        when(userRepository.validateUser(user.getId())).thenReturn(user);
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> List.copyOf(invocation.getArgument(0)));
+
+        ItemBatchResultDto result = itemService.addItems(user.getId(), itemDtos);
+
+        assertEquals(itemDtos.size(), result.getCreated().size());
+        assertEquals(Collections.emptyList(), result.getErrors());
+        verify(itemRequestRepository, never()).findAllById(any());
+        verify(itemRepository, times(3)).saveAll(anyList());
+        verify(itemRepository, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    public void addItemsOfUnknownUser() {
+        when(userRepository.validateUser(99L)).thenThrow(new NotFoundException("Объект не найден 99"));
+
+        assertThrows(NotFoundException.class, () -> itemService.addItems(99L, List.of(itemDto)));
+        verify(itemRepository, never()).saveAll(anyList());
+    }
+
     @Test
     public void renewalItem() {
         itemDto.setDescription("New item description");
         itemDto.setName("New item name");
         Item itemNew = ItemMapper.toItem(itemDto, user);
         ItemDto expectedItem = ItemMapper.toItemDto(itemNew);
-        when(userRepository.validateUser(anyLong())).thenReturn(user);
         when(itemRepository.validateItem(anyLong())).thenReturn(item);
         when(itemRepository.save(any())).thenReturn(ItemMapper.toItem(itemDto, user));
 
@@ -195,7 +293,6 @@ class ItemServiceImplTest {
         itemDto.setAvailable(null);
         Item itemNew = ItemMapper.toItem(itemDto, user);
         ItemDto expectedItem = ItemMapper.toItemDto(itemNew);
-        when(userRepository.validateUser(anyLong())).thenReturn(user);
         when(itemRepository.validateItem(anyLong())).thenReturn(item);
         when(itemRepository.save(any())).thenReturn(ItemMapper.toItem(itemDto, user));
 
@@ -241,22 +338,23 @@ class ItemServiceImplTest {
         booking.setStatus(BookingStatus.APPROVED);
         long expectedItemId = item.getId();
         long expectedUserId = user.getId();
-        BookingDto bookingDto1 = BookingMapper.toBookingDto(booking);
-        BookingShortDto bookingShortDto = BookingMapper.toBookingShortDto(bookingDto1);
+        BookingShortDto bookingShortDto = toBookingShortDto(booking);
         ItemDto expectedItemDto = ItemMapper.toItemDto(item);
         CommentDto commentDto = CommentMapper.toCommentDto(comment);
         expectedItemDto.setComments(List.of(commentDto));
         expectedItemDto.setLastBooking(bookingShortDto);
         when(itemRepository.validateItem(anyLong())).thenReturn(item);
-        when(bookingRepository.findFirstByItemIdAndStartBeforeAndStatus(anyLong(), any(LocalDateTime.class),
-                any(BookingStatus.class), any(Sort.class))).thenReturn(Optional.of(booking));
+        doAnswer(invocation -> {
+            Collection<ItemDto> itemDtos = invocation.getArgument(0);
+            itemDtos.forEach(dto -> dto.setLastBooking(bookingShortDto));
+            return null;
+        }).when(bookingTimelineService).setLastAndNextBookings(anyCollection());
         when(commentRepository.findAllByItemId(anyLong())).thenReturn(List.of(comment));
         ItemDto actualItem = itemService.getItemById(expectedItemId, expectedUserId);
         assertEquals(expectedItemDto, actualItem);
 
         verify(itemRepository, times(1)).validateItem(expectedItemId);
-        verify(bookingRepository, times(1)).findFirstByItemIdAndStartBeforeAndStatus(anyLong(),
-                any(LocalDateTime.class), any(BookingStatus.class), any(Sort.class));
+        verify(bookingTimelineService, times(1)).setLastAndNextBookings(anyCollection());
         verify(commentRepository, times(1)).findAllByItemId(expectedItemId);
     }
 
@@ -266,32 +364,35 @@ class ItemServiceImplTest {
         int from = 0;
         int size = 5;
         Pageable page = new PageSetup(from, size, Sort.by("id").ascending());
-        Booking nextBooking = Booking.builder()
+        Booking lastBooking = Booking.builder()
                 .id(2L)
-                .start(LocalDateTime.now().plusDays(3))
-                .end(LocalDateTime.now().plusDays(5))
+                .start(LocalDateTime.now().minusDays(5))
+                .end(LocalDateTime.now().minusDays(3))
                 .item(item)
                 .booker(user2)
-                .status(BookingStatus.WAITING)
+                .status(BookingStatus.APPROVED)
                 .build();
-        BookingDto bookingDto1 = BookingMapper.toBookingDto(booking);
-        BookingShortDto bookingShortDto = BookingMapper.toBookingShortDto(bookingDto1);
-        BookingDto bookingDto2 = BookingMapper.toBookingDto(nextBooking);
-        BookingShortDto bookingShortDto2 = BookingMapper.toBookingShortDto(bookingDto2);
-        expectedItemDto.setLastBooking(bookingShortDto);
-        expectedItemDto.setNextBooking(bookingShortDto2);
-        when(userRepository.validateUser(anyLong())).thenReturn(user);
-        when(itemRepository.findAllByOwnerId(anyLong(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(item)));
-        when(bookingRepository.findAllByOwnerAndStatus(anyLong(), any(BookingStatus.class), any(Sort.class))).thenReturn(List.of(booking));
+        when(itemRepository.findAllByOwnerId(anyLong(), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(item)));
+        doAnswer(invocation -> {
+            Collection<ItemDto> itemDtos = invocation.getArgument(0);
+            itemDtos.forEach(dto -> {
+                dto.setLastBooking(toBookingShortDto(lastBooking));
+                dto.setNextBooking(toBookingShortDto(booking));
+            });
+            return null;
+        }).when(bookingTimelineService).setLastAndNextBookings(anyCollection());
+        when(commentRepository.findAllByItemIn(anyList())).thenReturn(List.of(comment));
         List<ItemDto> actualDto = itemService.getPersonal(user.getId(), from, size);
         assertNotNull(actualDto);
         assertEquals(1, actualDto.size());
         assertEquals(expectedItemDto.getId(), actualDto.get(0).getId());
+        assertEquals(lastBooking.getId(), actualDto.get(0).getLastBooking().getId());
         assertEquals(booking.getId(), actualDto.get(0).getNextBooking().getId());
-        assertNotNull(actualDto.get(0).getComments());
+        assertEquals(user2.getId(), actualDto.get(0).getNextBooking().getBookerId());
+        assertEquals(List.of(CommentMapper.toCommentDto(comment)), actualDto.get(0).getComments());
 
         verify(itemRepository, times(1)).findAllByOwnerId(user.getId(), page);
-        verify(bookingRepository, times(1)).findAllByOwnerAndStatus(anyLong(), any(BookingStatus.class), any(Sort.class));
+        verify(bookingTimelineService, times(1)).setLastAndNextBookings(anyCollection());
     }
 
     @Test
@@ -301,13 +402,12 @@ class ItemServiceImplTest {
         int from = 0;
         int size = 5;
         Pageable page = new PageSetup(from, size, Sort.by("id").ascending());
-        when(userRepository.validateUser(anyLong())).thenReturn(user);
-        when(itemRepository.findAllByOwnerId(anyLong(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+        when(itemRepository.findAllByOwnerId(anyLong(), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
         assertThrows(NotFoundException.class, () -> itemService.getPersonal(user.getId(), from, size));
 
         verify(itemRepository, times(1)).findAllByOwnerId(user.getId(), page);
         verify(commentRepository, never()).findAllByItemIn(List.of(item));
-        verify(bookingRepository, never()).findAllByOwnerAndStatus(anyLong(), any(BookingStatus.class), any(Sort.class));
+        verify(bookingTimelineService, never()).setLastAndNextBookings(anyCollection());
     }
 
     @Test
@@ -316,13 +416,39 @@ class ItemServiceImplTest {
         int size = 5;
         Pageable page = new PageSetup(from, size, Sort.unsorted());
         String text = "description";
-        when(itemRepository.searchItemByText(anyString(), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(item)));
-        List<ItemDto> foundedItems = itemService.search(text, from, size);
+        when(itemSearchIndex.search(anyString(), anyLong(), anyInt())).thenReturn(List.of(ItemDocument.of(item)));
+        List<ItemDto> foundedItems = itemService.search(text, from, size, false);
         assertFalse(foundedItems.isEmpty());
         assertEquals(1, foundedItems.size());
         assertEquals(ItemMapper.toItemDto(item), foundedItems.get(0));
 
-        verify(itemRepository, times(1)).searchItemByText(text, page);
+        verify(itemSearchIndex, times(1)).search(text, page.getOffset(), page.getPageSize());
+    }
+
+    @Test
+    public void searchAvailableChecksBookingIntervals() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 4, 0, 0);
+        LocalDateTime end = start.plusDays(2);
+        ArgumentCaptor<LongPredicate> filter = ArgumentCaptor.forClass(LongPredicate.class);
+        when(itemSearchIndex.search(eq("description"), eq(0L), eq(5), filter.capture()))
+                .thenReturn(List.of(ItemDocument.of(item)));
+        when(bookingIntervalIndex.hasOverlap(1L, start, end)).thenReturn(false);
+        when(bookingIntervalIndex.hasOverlap(2L, start, end)).thenReturn(true);
+
+        List<ItemDto> foundedItems = itemService.searchAvailable("description", start, end, 0, 5);
+
+        assertEquals(List.of(ItemMapper.toItemDto(item)), foundedItems);
+        assertTrue(filter.getValue().test(1L));
+        assertFalse(filter.getValue().test(2L));
+    }
+
+    @Test
+    public void searchAvailableWithInvalidPeriod() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 4, 0, 0);
+
+        assertThrows(ValidationException.class, () -> itemService.searchAvailable("description", start,
+                start.minusDays(1), 0, 5));
+        verifyNoInteractions(itemSearchIndex);
     }
 
     @Test
@@ -331,11 +457,33 @@ class ItemServiceImplTest {
         int from = 0;
         int size = 5;
         Pageable page = new PageSetup(from, size, Sort.unsorted());
-        when(itemRepository.searchItemByText(anyString(), any(PageRequest.class))).thenReturn(new PageImpl<>(Collections.emptyList()));
-        List<ItemDto> foundedItems = itemService.search(text, from, size);
+        when(itemSearchIndex.search(anyString(), anyLong(), anyInt())).thenReturn(Collections.emptyList());
+        List<ItemDto> foundedItems = itemService.search(text, from, size, false);
+
+        assertTrue(foundedItems.isEmpty());
+        verify(itemSearchIndex, times(1)).search(text, page.getOffset(), page.getPageSize());
+    }
+
+    @Test
+    public void searchRanked() {
+        int from = 0;
+        int size = 5;
+        Pageable page = new PageSetup(from, size, Sort.unsorted());
+        String text = "description";
+        when(itemSearchIndex.searchRanked(anyString(), anyLong(), anyInt())).thenReturn(List.of(ItemDocument.of(item)));
+        List<ItemDto> foundedItems = itemService.search(text, from, size, true);
+
+        assertEquals(List.of(ItemMapper.toItemDto(item)), foundedItems);
+        verify(itemSearchIndex, times(1)).searchRanked(text, page.getOffset(), page.getPageSize());
+        verify(itemSearchIndex, never()).search(anyString(), anyLong(), anyInt());
+    }
+
+    @Test
+    public void searchBlankText() {
+        List<ItemDto> foundedItems = itemService.search(" ", 0, 5, false);
 
         assertTrue(foundedItems.isEmpty());
-        verify(itemRepository, times(1)).searchItemByText(text, page);
+        verify(itemSearchIndex, never()).search(anyString(), anyLong(), anyInt());
     }
 
     @Test
@@ -374,4 +522,43 @@ class ItemServiceImplTest {
         assertThrows(RequestException.class, () -> itemService.addComment(expectedUserId, expectedItemId, commentDto));
         verify(commentRepository, never()).save(comment);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getAvailabilityMergesSlotsIntoRanges() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 30);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        BitSet busy = new BitSet();
+        busy.set(1, 3);
+        when(itemRepository.validateItem(item.getId())).thenReturn(item);
+        when(bookingIntervalIndex.busySlots(item.getId(), start, Duration.ofHours(1), 5)).thenReturn(busy);
+
+        List<AvailabilityRangeDto> ranges = itemService.getAvailability(item.getId(), from, from.plusHours(4),
+                AvailabilityGranularity.HOUR);
+
+        assertEquals(List.of(
+                new AvailabilityRangeDto(start, start.plusHours(1), true),
+                new AvailabilityRangeDto(start.plusHours(1), start.plusHours(3), false),
+                new AvailabilityRangeDto(start.plusHours(3), start.plusHours(5), true)), ranges);
+    }
+
+    @Test
+    public void getAvailabilityWithInvalidPeriod() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemRepository.validateItem(item.getId())).thenReturn(item);
+
+        assertThrows(ValidationException.class, () -> itemService.getAvailability(item.getId(), from, from,
+                AvailabilityGranularity.DAY));
+        assertThrows(ValidationException.class, () -> itemService.getAvailability(item.getId(), from,
+                from.plusYears(2), AvailabilityGranularity.HOUR));
+        verify(bookingIntervalIndex, never()).busySlots(anyLong(), any(), any(), anyInt());
+    }
+
+    private static BookingShortDto toBookingShortDto(Booking booking) {
+        return BookingShortDto.builder()
+                .id(booking.getId())
+                .bookerId(booking.getBooker().getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build();
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exceptions.NotFoundException;
@@ -14,6 +15,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.utils.PageSetup;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -108,4 +110,23 @@ class ItemRequestRepositoryTest {
         assertThat(List.of(itemRequest).get(0)).hasFieldOrPropertyWithValue("id", itemRequest.getId());
         assertThat(List.of(itemRequest).get(0)).hasFieldOrPropertyWithValue("requestor", itemRequest.getRequestor());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void findOtherUsersRequestsAfter() {
+        LocalDateTime created = itemRequest2.getCreated().truncatedTo(ChronoUnit.MICROS);
+        itemRequest2.setCreated(created);
+        itemRequestRepository.saveAndFlush(itemRequest2);
+        ItemRequest earlier = itemRequestRepository.save(ItemRequest.builder()
+                .description("Earlier request description")
+                .requestor(user2)
+                .created(created.minusDays(1))
+                .build());
+
+        assertEquals(List.of(earlier), itemRequestRepository.findOtherUsersRequestsAfter(user.getId(),
+                created, itemRequest2.getId(), PageRequest.of(0, 10)));
+        assertEquals(List.of(itemRequest2, earlier), itemRequestRepository.findOtherUsersRequestsAfter(user.getId(),
+                created, itemRequest2.getId() + 1, PageRequest.of(0, 10)));
+        assertEquals(List.of(), itemRequestRepository.findOtherUsersRequestsAfter(user.getId(),
+                created.minusDays(1), earlier.getId(), PageRequest.of(0, 10)));
+    }
+}
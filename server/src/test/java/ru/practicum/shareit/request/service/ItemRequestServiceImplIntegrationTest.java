@@ -1,6 +1,8 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,20 +14,27 @@ import ru.practicum.shareit.request.dto.AddItemRequestDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.CursorPage;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Transactional
-@SpringBootTest(properties = {"db.name=test"})
+@SpringBootTest(properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true"})
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 class ItemRequestServiceImplIntegrationTest {
     private final ItemRequestService itemRequestService;
     private final UserService userService;
     private final ItemService itemService;
+    private final EntityManager entityManager;
     private ItemDto itemDto;
     private ItemDto savedItem;
     private User itemOwner;
@@ -75,4 +84,84 @@ class ItemRequestServiceImplIntegrationTest {
         assertEquals(savedRequest.getDescription(), requestsList.get(0).getDescription());
         assertEquals(savedRequest.getRequestor(), requestsList.get(0).getRequestor());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getOtherUsersRequestsRunsConstantNumberOfQueries() {
+        UserDto savedOwner = userService.addUser(owner);
+        savedRequestor = userService.addUser(requestor);
+        addRequestsWithItems(savedOwner.getId(), 1);
+        long singleRequestQueries = countQueries(() -> itemRequestService.getOtherUsersRequests(savedOwner.getId(), 0, 50));
+
+        addRequestsWithItems(savedOwner.getId(), 9);
+        Statistics statistics = statistics();
+        long manyRequestsQueries = countQueries(() -> assertEquals(10,
+                itemRequestService.getOtherUsersRequests(savedOwner.getId(), 0, 50).size()));
+        assertEquals(singleRequestQueries, manyRequestsQueries);
+        assertEquals(0, statistics.getEntityFetchCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    public void getOtherUsersRequestsByCursorVisitsEveryRequestOnce() {
+        UserDto savedOwner = userService.addUser(owner);
+        savedRequestor = userService.addUser(requestor);
+        addRequestsWithItems(savedOwner.getId(), 7);
+
+        Set<Long> seen = new HashSet<>();
+        String cursor = "";
+        int pages = 0;
+        while (cursor != null) {
+            CursorPage<AddItemRequestDto> page = itemRequestService.getOtherUsersRequestsByCursor(savedOwner.getId(),
+                    cursor, 3);
+            page.getContent().forEach(request -> assertTrue(seen.add(request.getId())));
+            cursor = page.getNext();
+            pages++;
+        }
+        assertEquals(7, seen.size());
+        assertEquals(3, pages);
+    }
+
+    @Test
+    public void getOtherUsersRequestsByCursorWithExactlyFullLastPage() {
+        UserDto savedOwner = userService.addUser(owner);
+        savedRequestor = userService.addUser(requestor);
+        addRequestsWithItems(savedOwner.getId(), 6);
+
+        CursorPage<AddItemRequestDto> first = itemRequestService.getOtherUsersRequestsByCursor(savedOwner.getId(),
+                "", 3);
+        CursorPage<AddItemRequestDto> last = itemRequestService.getOtherUsersRequestsByCursor(savedOwner.getId(),
+                first.getNext(), 3);
+
+        assertEquals(3, first.getContent().size());
+        assertEquals(3, last.getContent().size());
+        assertNull(last.getNext());
+    }
+
+    private void addRequestsWithItems(Long ownerId, int count) {
+        for (int i = 0; i < count; i++) {
+            AddItemRequestDto request = itemRequestService.addRequest(AddItemRequestDto.builder()
+                    .description("Description" + i)
+                    .created(LocalDateTime.now())
+                    .build(), savedRequestor.getId());
+            itemService.addItem(ownerId, ItemDto.builder()
+                    .name("Item" + i)
+                    .description("Item description")
+                    .available(true)
+                    .requestId(request.getId())
+                    .build());
+        }
+    }
+
+    private long countQueries(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -6,15 +6,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.AddItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.index.UserIdIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
@@ -31,13 +33,17 @@ import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ItemRequestServiceImplTest {
-    private static final Sort SORT_BY_CREATED_DESC = Sort.by("created").descending();
+    private static final Sort SORT_BY_CREATED_DESC = Sort.by(Sort.Order.desc("created"), Sort.Order.desc("id"));
     @Mock
     private ItemRequestRepository itemRequestRepository;
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserIdIndex userIdIndex;
+    @Mock
     private UserService userService;
+    @Mock
+    private ItemRepository itemRepository;
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
     private User user;
@@ -104,9 +110,33 @@ class ItemRequestServiceImplTest {
         when(userRepository.validateUser(anyLong())).thenReturn(user);
         when(itemRequestRepository.findAllByRequestorId(anyLong()))
                 .thenReturn(requestList);
+        when(itemRepository.findAllByRequestIdIn(List.of(itemRequest.getId()))).thenReturn(List.of());
         List<AddItemRequestDto> actualRequestList = itemRequestService.getUserRequests(userId);
         assertEquals(addItemList, actualRequestList);
         verify(itemRequestRepository, times(1)).findAllByRequestorId(userId);
+        verify(itemRepository, times(1)).findAllByRequestIdIn(List.of(itemRequest.getId()));
+    }
+
+    @Test
+    public void getUserRequestsGroupsItemsByRequest() {
+        ItemRequest itemRequest2 = ItemRequest.builder()
+                .id(2L)
+                .description("Description2")
+                .requestor(user)
+                .created(LocalDateTime.now())
+                .build();
+        item.setRequest(itemRequest2);
+
+        when(userRepository.validateUser(anyLong())).thenReturn(user);
+        when(itemRequestRepository.findAllByRequestorId(anyLong())).thenReturn(List.of(itemRequest, itemRequest2));
+        when(itemRepository.findAllByRequestIdIn(List.of(itemRequest.getId(), itemRequest2.getId())))
+                .thenReturn(List.of(item));
+        List<AddItemRequestDto> actualRequestList = itemRequestService.getUserRequests(user.getId());
+        assertEquals(2, actualRequestList.size());
+        assertEquals(List.of(), actualRequestList.get(0).getItems());
+        assertEquals(1, actualRequestList.get(1).getItems().size());
+        assertEquals(item.getId(), actualRequestList.get(1).getItems().get(0).getId());
+        verify(itemRepository, times(1)).findAllByRequestIdIn(anyList());
     }
 
     @Test
@@ -117,8 +147,7 @@ class ItemRequestServiceImplTest {
         Long userId = user.getId();
         List<AddItemRequestDto> addItemList = Collections.emptyList();
 
-        when(userRepository.validateUser(anyLong())).thenReturn(user);
-        when(itemRequestRepository.findAllByRequestorIdNot(userId, page)).thenReturn(Page.empty());
+        when(itemRequestRepository.findAllByRequestorIdNot(userId, page)).thenReturn(new SliceImpl<>(List.of()));
         List<AddItemRequestDto> actualRequestList = itemRequestService.getOtherUsersRequests(userId, from, size);
         assertEquals(addItemList, actualRequestList);
         verify(itemRequestRepository, times(1)).findAllByRequestorIdNot(userId, page);
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.user.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserRemovedEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserIdIndexTest {
+    @Mock
+    private UserRepository userRepository;
+    @InjectMocks
+    private UserIdIndex userIdIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 3L));
+        userIdIndex.load();
+    }
+
+    @Test
+    public void loadedUsersExistWithoutQuery() {
+        assertTrue(userIdIndex.exists(1L));
+        assertTrue(userIdIndex.exists(3L));
+        userIdIndex.validateUser(1L);
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    public void unknownUserIsCheckedInDatabaseAndRemembered() {
+        when(userRepository.existsById(2L)).thenReturn(true);
+
+        assertTrue(userIdIndex.exists(2L));
+        assertTrue(userIdIndex.exists(2L));
+        verify(userRepository, times(1)).existsById(2L);
+    }
+
+    @Test
+    public void missingUserFailsValidation() {
+        when(userRepository.existsById(4L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> userIdIndex.validateUser(4L));
+    }
+
+    @Test
+    public void registeredAndRemovedUsersAreTracked() {
+        userIdIndex.register(4L);
+        assertTrue(userIdIndex.exists(4L));
+
+        userIdIndex.onUserRemoved(new UserRemovedEvent(1L, List.of(), List.of()));
+        when(userRepository.existsById(1L)).thenReturn(false);
+        assertFalse(userIdIndex.exists(1L));
+    }
+
+    @Test
+    public void userRemovedDuringDatabaseCheckIsNotRemembered() {
+        when(userRepository.existsById(7L)).thenAnswer(invocation -> {
+            userIdIndex.onUserRemoved(new UserRemovedEvent(7L, List.of(), List.of()));
+            return true;
+        }).thenReturn(false);
+
+        assertTrue(userIdIndex.exists(7L));
+        assertFalse(userIdIndex.exists(7L));
+        verify(userRepository, times(2)).existsById(7L);
+    }
+}
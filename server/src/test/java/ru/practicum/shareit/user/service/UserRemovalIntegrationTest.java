@@ -0,0 +1,79 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.AddItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Без @Transactional: вещи попадают в поисковый индекс только после фиксации транзакции.
+ */
+@SpringBootTest(properties = {"db.name=test"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class UserRemovalIntegrationTest {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final ItemRequestService itemRequestService;
+    private UserDto owner;
+    private UserDto requestor;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.addUser(UserDto.builder()
+                .name("Owner")
+                .email("removal-owner@gmail.com")
+                .build());
+        requestor = userService.addUser(UserDto.builder()
+                .name("Requestor")
+                .email("removal-requestor@gmail.com")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.removeUserById(owner.getId());
+    }
+
+    @Test
+    public void removedRequestorTakesItemsOfItsRequestsOutOfSearch() {
+        AddItemRequestDto request = itemRequestService.addRequest(AddItemRequestDto.builder()
+                .description("Нужен пылесос")
+                .build(), requestor.getId());
+        ItemDto requested = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Пылесос")
+                .description("Моющий")
+                .available(true)
+                .requestId(request.getId())
+                .build());
+        ItemDto own = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Пылесос ручной")
+                .description("Беспроводной")
+                .available(true)
+                .build());
+        assertEquals(List.of(requested.getId(), own.getId()), ids(itemService.search("пылесос", 0, 10, false)));
+
+        userService.removeUserById(requestor.getId());
+
+        assertEquals(List.of(own.getId()), ids(itemService.search("пылесос", 0, 10, false)));
+        assertTrue(itemService.search("моющий", 0, 10, false).isEmpty());
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -6,8 +6,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.index.UserIdIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -22,6 +26,14 @@ import static org.mockito.Mockito.*;
 class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private UserIdIndex userIdIndex;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private UserServiceImpl userService;
     private UserDto userDto;
@@ -51,6 +63,7 @@ class UserServiceImplTest {
         assertEquals(userDto.getId(), actualNewUser.getId());
         assertEquals(userDto.getEmail(), actualNewUser.getEmail());
         verify(userRepository, times(1)).save(any());
+        verify(userIdIndex, times(1)).register(user.getId());
     }
 
     @Test
@@ -97,8 +110,13 @@ class UserServiceImplTest {
     @Test
     public void deleteUserExists() {
         doNothing().when(userRepository).deleteById(anyLong());
+        when(bookingRepository.findItemIdsByBookerIdOrOwnerId(1L)).thenReturn(List.of(5L, 7L));
+        when(itemRepository.findIdsByRequestorId(1L)).thenReturn(List.of(9L));
 
         userService.removeUserById(1L);
         verify(userRepository, times(1)).deleteById(1L);
+        verify(eventPublisher, times(1)).publishEvent(argThat((UserRemovedEvent event) ->
+                event.getUserId().equals(1L) && event.getItemIds().equals(List.of(5L, 7L))
+                        && event.getRequestItemIds().equals(List.of(9L))));
     }
 }
\ No newline at end of file